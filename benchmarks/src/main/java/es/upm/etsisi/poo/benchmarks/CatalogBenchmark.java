@@ -0,0 +1,52 @@
+package es.upm.etsisi.poo.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import es.upm.etsisi.poo.domain.product.Catalog;
+import es.upm.etsisi.poo.domain.product.Product;
+
+// [Benchmark] Catalog.getProduct from 10^2 to 10^6 products, hits and misses.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CatalogBenchmark {
+    private static final int LOOKUPS = 1024;      // Power of two: the cursor wraps with a mask.
+
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    public int products;
+
+    private Catalog catalog;
+    private String[] hits;
+    private String[] misses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = Fixtures.catalog(products);
+        hits = new String[LOOKUPS];
+        misses = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            hits[i] = String.valueOf((int) ((i * 2_654_435_761L) % products) + 1);   // Spread over the catalog.
+            misses[i] = String.valueOf(products + i + 1);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public Product getProductHit(Cursor cursor) {
+        return catalog.getProduct(hits[cursor.next++ & (LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    public Product getProductMiss(Cursor cursor) {
+        return catalog.getProduct(misses[cursor.next++ & (LOOKUPS - 1)]);
+    }
+}
@@ -0,0 +1,74 @@
+package es.upm.etsisi.poo.benchmarks;
+
+import java.io.PrintStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import es.upm.etsisi.poo.application.Store;
+import es.upm.etsisi.poo.ui.CommandHandler;
+import es.upm.etsisi.poo.ui.CommandTokenizer;
+import es.upm.etsisi.poo.domain.ticket.TicketPrintType;
+
+// [Benchmark] Command parsing: the tokenizer alone over typical lines, dispatch only ('echo'),
+// and CommandHandler.handle for a full 'ticket add' (output discarded).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandBenchmark {
+    private static final String TICKET_ID = "BENCH-CMD";
+    private static final String[] LINES = {
+            "ticket add " + TICKET_ID + " " + Fixtures.CASHIER_ID + " 7 2",
+            "ticket add " + TICKET_ID + " " + Fixtures.CASHIER_ID + " 12 1 --p\"Name on it\" --p\"Gift\"",
+            "prod add 201 \"Technical Drawing Kit\" STATIONERY 12.95",
+            "prod update 14 PRICE 7.5",
+            "client add \"Ana Garcia\" 12345678Z ana.garcia@upm.es " + Fixtures.CASHIER_ID,
+            "ticket new " + TICKET_ID + " " + Fixtures.CASHIER_ID + " " + Fixtures.COMPANY_ID + " -c",
+            "ticket print " + TICKET_ID + " " + Fixtures.CASHIER_ID,
+            "echo \"Start of the shift\""
+    };
+
+    private final CommandTokenizer tokenizer = new CommandTokenizer();
+    private Store store;
+    private CommandHandler handler;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = Fixtures.store(200, 0, 0);
+        store.createTicket(TICKET_ID, Fixtures.CASHIER_ID, Fixtures.CLIENT_ID, TicketPrintType.STANDARD);
+        handler = new CommandHandler(store, new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    // Logic: 'ticket add' keeps merging into one line; start each iteration without it.
+    @Setup(Level.Iteration)
+    public void resetTicket() {
+        if (!store.getTicket(TICKET_ID).getLines().isEmpty()) {
+            store.removeProductFromTicket(TICKET_ID, Fixtures.CASHIER_ID, "7");
+        }
+    }
+
+    @Benchmark
+    public void tokenize(Blackhole blackhole) {
+        tokenizer.reset(LINES[next++ & (LINES.length - 1)]);
+        blackhole.consume(tokenizer.commandIs("ticket"));
+        while (tokenizer.hasNext()) {
+            blackhole.consume(tokenizer.next());
+        }
+    }
+
+    @Benchmark
+    public void handleEcho() {
+        handler.handle("echo \"Start of the shift\"");
+    }
+
+    @Benchmark
+    public void handleTicketAdd() {
+        handler.handle(LINES[0]);
+    }
+}
@@ -0,0 +1,95 @@
+package es.upm.etsisi.poo.benchmarks;
+
+import java.util.List;
+import java.time.LocalDateTime;
+
+import es.upm.etsisi.poo.application.Store;
+import es.upm.etsisi.poo.domain.money.Money;
+import es.upm.etsisi.poo.domain.user.Cashier;
+import es.upm.etsisi.poo.domain.product.Catalog;
+import es.upm.etsisi.poo.domain.product.Product;
+import es.upm.etsisi.poo.domain.product.Service;
+import es.upm.etsisi.poo.domain.product.ServiceType;
+import es.upm.etsisi.poo.domain.ticket.CommonTicket;
+import es.upm.etsisi.poo.domain.ticket.CompanyTicket;
+import es.upm.etsisi.poo.domain.user.CompanyClient;
+import es.upm.etsisi.poo.domain.user.IndividualClient;
+import es.upm.etsisi.poo.domain.product.StandardProduct;
+import es.upm.etsisi.poo.domain.product.ProductCategory;
+import es.upm.etsisi.poo.domain.ticket.TicketPrintType;
+import es.upm.etsisi.poo.infrastructure.printing.CompanyPrintStrategy;
+import es.upm.etsisi.poo.infrastructure.printing.ServicePrintStrategy;
+import es.upm.etsisi.poo.infrastructure.printing.StandardPrintStrategy;
+
+// [Class] Synthetic stores and tickets for the benchmarks.
+// IDs, prices and dates are derived from the index only, so every run measures the same data.
+final class Fixtures {
+    static final String CASHIER_ID = "UW0000001";
+    static final String CLIENT_ID = "00000001A";
+    static final String COMPANY_ID = "B00000001";
+    private static final LocalDateTime SERVICE_DATE = LocalDateTime.of(2100, 1, 1, 0, 0);
+    private static final ProductCategory[] CATEGORIES = ProductCategory.values();
+    private static final ServiceType[] SERVICE_TYPES = ServiceType.values();
+
+    private Fixtures() {
+    }
+
+    static StandardProduct product(int index) {
+        return new StandardProduct(String.valueOf(index + 1), "Product " + index,
+                CATEGORIES[index % CATEGORIES.length], Money.ofCents(100 + (index * 37L) % 9_900));
+    }
+
+    static Service service(int index) {
+        return new Service((index + 1) + "S", SERVICE_DATE, SERVICE_TYPES[index % SERVICE_TYPES.length]);
+    }
+
+    static Catalog catalog(int products) {
+        Catalog catalog = new Catalog(Math.max(products, Catalog.DEFAULT_MAX_PRODUCTS));
+        for (int i = 0; i < products; i++) {
+            catalog.addProduct(product(i));
+        }
+        return catalog;
+    }
+
+    // Store: 'products' products, one cashier, an individual and a company client, and 'tickets'
+    // open tickets of 'lines' lines each.
+    static Store store(int products, int tickets, int lines) {
+        Store store = new Store(Math.max(products, Catalog.DEFAULT_MAX_PRODUCTS));
+        for (int i = 0; i < products; i++) {
+            store.addProduct(product(i));
+        }
+        store.addCashier(new Cashier(CASHIER_ID, "Bench Cashier", "cashier@upm.es"));
+        store.addClient(new IndividualClient(CLIENT_ID, "Bench Client", "client@upm.es", CASHIER_ID));
+        store.addClient(new CompanyClient(COMPANY_ID, "Bench Company", "company@upm.es", CASHIER_ID));
+        for (int t = 0; t < tickets; t++) {
+            String ticketId = "T" + t;
+            store.createTicket(ticketId, CASHIER_ID, CLIENT_ID, TicketPrintType.STANDARD);
+            for (int l = 0; l < lines; l++) {
+                store.addProductToTicket(ticketId, CASHIER_ID, String.valueOf((t * 7 + l) % products + 1), 1 + l % 3, List.of());
+            }
+        }
+        return store;
+    }
+
+    // Ticket: Products only, printed with the standard strategy.
+    static CommonTicket commonTicket(int lines) {
+        CommonTicket ticket = new CommonTicket("BENCH-COMMON");
+        ticket.setPrintStrategy(new StandardPrintStrategy());
+        for (int i = 0; i < lines; i++) {
+            ticket.addProduct(product(i), 1 + i % 3, List.of());
+        }
+        return ticket;
+    }
+
+    // Ticket: SERVICE holds services only; COMPANY alternates products and services.
+    static CompanyTicket companyTicket(int lines, TicketPrintType printType) {
+        CompanyTicket ticket = new CompanyTicket("BENCH-" + printType, printType);
+        ticket.setPrintStrategy(printType == TicketPrintType.SERVICE
+                ? new ServicePrintStrategy() : new CompanyPrintStrategy());
+        for (int i = 0; i < lines; i++) {
+            Product line = (printType == TicketPrintType.SERVICE || i % 2 == 1) ? service(i) : product(i);
+            ticket.addProduct(line, 1 + i % 3, List.of());
+        }
+        return ticket;
+    }
+}
@@ -0,0 +1,75 @@
+package es.upm.etsisi.poo.benchmarks;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.*;
+
+import es.upm.etsisi.poo.application.Store;
+import es.upm.etsisi.poo.infrastructure.persistence.FilePersistenceHandler;
+
+// [Benchmark] FilePersistenceHandler save/load of synthetic stores, in a temporary directory.
+// load: Maps the snapshot (tickets stay deferred). loadFully: Also decodes every ticket.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PersistenceBenchmark {
+    private static final int PRODUCTS = 1000;
+    private static final int LINES_PER_TICKET = 10;
+
+    @Param({"100", "10000"})
+    public int tickets;
+
+    private Path directory;
+    private FilePersistenceHandler persistence;
+    private Store store;
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Quiet: save() reports every snapshot on the console.
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        directory = Files.createTempDirectory("upm-bench");
+        persistence = new FilePersistenceHandler(directory,
+                FilePersistenceHandler.DEFAULT_CHECKPOINT_INTERVAL, FilePersistenceHandler.DEFAULT_CHECKPOINT_SECONDS);
+        store = Fixtures.store(PRODUCTS, tickets, LINES_PER_TICKET);
+        persistence.save(store);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.setOut(console);
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void save() {
+        persistence.save(store);
+    }
+
+    @Benchmark
+    public Store load() {
+        return persistence.load(PRODUCTS);
+    }
+
+    @Benchmark
+    public Store loadFully() {
+        Store loaded = persistence.load(PRODUCTS);
+        loaded.loadTickets();
+        return loaded;
+    }
+}
@@ -0,0 +1,48 @@
+package es.upm.etsisi.poo.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import es.upm.etsisi.poo.domain.money.Money;
+import es.upm.etsisi.poo.domain.ticket.Ticket;
+import es.upm.etsisi.poo.domain.product.Product;
+import es.upm.etsisi.poo.domain.ticket.TicketPrintType;
+
+// [Benchmark] CommonTicket / CompanyTicket.getTotalPrice by line count: with the running totals
+// current, and after a product edit forces them to be rebuilt from the lines.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+    @Param({"COMMON", "COMPANY"})
+    public String ticketType;
+
+    @Param({"1", "10", "100"})
+    public int lines;
+
+    private Ticket<?> ticket;
+    private Product edited;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ticket = ticketType.equals("COMMON")
+                ? Fixtures.commonTicket(lines)
+                : Fixtures.companyTicket(lines, TicketPrintType.COMPANY);
+        edited = ticket.getLines().get(0).getProduct();
+    }
+
+    @Benchmark
+    public Money totalPrice() {
+        return ticket.getTotalPrice();
+    }
+
+    @Benchmark
+    public Money totalPriceAfterEdit() {
+        ticket.onProductChanged(edited);
+        return ticket.getTotalPrice();
+    }
+}
@@ -0,0 +1,46 @@
+package es.upm.etsisi.poo.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import es.upm.etsisi.poo.domain.ticket.Ticket;
+import es.upm.etsisi.poo.domain.printing.PrintStrategy;
+import es.upm.etsisi.poo.domain.ticket.TicketPrintType;
+
+// [Benchmark] PrintStrategy.formatTicket for each strategy, into a reused buffer.
+// STANDARD: products on a CommonTicket. SERVICE: services only. COMPANY: products and services.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrintBenchmark {
+    @Param({"STANDARD", "SERVICE", "COMPANY"})
+    public String strategy;
+
+    @Param({"10", "100"})
+    public int lines;
+
+    private Ticket<?> ticket;
+    private PrintStrategy printStrategy;
+    private final StringBuilder out = new StringBuilder(16 * 1024);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TicketPrintType printType = TicketPrintType.valueOf(strategy);
+        ticket = printType == TicketPrintType.STANDARD
+                ? Fixtures.commonTicket(lines)
+                : Fixtures.companyTicket(lines, printType);
+        printStrategy = ticket.getPrintStrategy();
+    }
+
+    @Benchmark
+    public StringBuilder formatTicket() throws IOException {
+        out.setLength(0);
+        printStrategy.formatTicket(ticket, out);
+        return out;
+    }
+}
@@ -0,0 +1,73 @@
+package es.upm.etsisi.poo.benchmarks;
+
+import java.io.PrintStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import es.upm.etsisi.poo.application.Store;
+import es.upm.etsisi.poo.ui.CommandHandler;
+import es.upm.etsisi.poo.domain.exceptions.UPMStoreDomainException;
+
+// [Benchmark] Throughput of a generated ticket stream through CommandHandler (output discarded).
+// The catalog and users are set up once per trial; each invocation replays the same tickets under
+// new IDs, so releases can be compared on the same seeded workload.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ScriptReplayBenchmark {
+    private static final long SEED = 42L;
+
+    @Param({"200"})
+    public int tickets;
+
+    @Param({"0.0", "1.1"})
+    public double skuSkew;
+
+    private WorkloadGenerator generator;
+    private CommandHandler handler;
+    private String[] script;
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        generator = new WorkloadGenerator(SEED);
+        generator.setTickets(tickets);
+        generator.setSkuSkew(skuSkew);
+        Store store = new Store(generator.getCatalogSize());
+        handler = new CommandHandler(store, new PrintStream(OutputStream.nullOutputStream()));
+        StringBuilder setup = new StringBuilder();
+        generator.writeSetup(setup);
+        replay(setup.toString().split("\n"));
+    }
+
+    // Logic: Next round's tickets, generated outside the measurement.
+    @Setup(Level.Invocation)
+    public void nextRound() throws Exception {
+        StringBuilder lines = new StringBuilder();
+        generator.writeTickets(lines, "R" + (round++) + "-");
+        script = lines.toString().split("\n");
+    }
+
+    @Benchmark
+    public int replay() {
+        return replay(script);
+    }
+
+    // Returns the number of rejected commands (0 for a well-formed workload).
+    private int replay(String[] lines) {
+        int errors = 0;
+        for (String line : lines) {
+            try {
+                handler.handle(line);
+            } catch (UPMStoreDomainException e) {
+                errors++;
+            }
+        }
+        return errors;
+    }
+}
@@ -0,0 +1,51 @@
+package es.upm.etsisi.poo.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import es.upm.etsisi.poo.application.Store;
+import es.upm.etsisi.poo.domain.ticket.TicketPrintType;
+
+// [Benchmark] Store.addProductToTicket end to end: lookups, ownership and rule checks, locking and
+// the ticket update. Products rotate over a fixed set, so lines merge and the ticket stays under
+// its line limit; each iteration starts from a fresh ticket.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicketBenchmark {
+    private static final int ROTATION = 64;
+
+    @Param({"200", "10000"})
+    public int products;
+
+    private Store store;
+    private String[] productIds;
+    private String ticketId;
+    private int iteration;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = Fixtures.store(products, 0, 0);
+        productIds = new String[ROTATION];
+        for (int i = 0; i < ROTATION; i++) {
+            productIds[i] = String.valueOf((i * 31) % products + 1);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void newTicket() {
+        ticketId = "BENCH-" + (iteration++);
+        store.createTicket(ticketId, Fixtures.CASHIER_ID, Fixtures.CLIENT_ID, TicketPrintType.STANDARD);
+    }
+
+    @Benchmark
+    public void addProductToTicket() {
+        store.addProductToTicket(ticketId, Fixtures.CASHIER_ID, productIds[next++ & (ROTATION - 1)], 1, List.of());
+    }
+}
@@ -0,0 +1,549 @@
+package es.upm.etsisi.poo.benchmarks;
+
+import java.util.Set;
+import java.util.List;
+import java.util.HashSet;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.util.LinkedHashSet;
+import java.util.SplittableRandom;
+import java.nio.charset.StandardCharsets;
+
+// [Tool] Seeded generator of tUPM command scripts at production scale.
+// Setup: cashiers, clients (DNI/NIF mix), products (standard, customizable, food, meeting) and services.
+// Tickets: several tickets open at once, interleaved as at real tills; products and cashiers are
+// drawn with Zipf skew (hot SKUs, busy cashiers); each ticket is printed once it is complete.
+// Rule: The same seed and sizes always give the same script. Service IDs are assigned by the store
+// (1S, 2S, ...), so scripts target an empty store.
+// Usage: WorkloadGenerator [--seed n] [--tickets n] [--products n] ... [--out file]   (see usage())
+public class WorkloadGenerator {
+    private static final String DNI_LETTERS = "TRWAGMYFPDXBNJZSQVHLCKE";
+    private static final String NIF_LETTERS = "ABCDEFGHJ";
+    private static final String[] FIRST_NAMES = {"Ana", "Luis", "Marta", "Pablo", "Lucia", "Javier", "Sofia", "Diego", "Elena", "Carlos"};
+    private static final String[] SURNAMES = {"Garcia", "Martinez", "Lopez", "Sanchez", "Perez", "Gomez", "Martin", "Jimenez", "Ruiz", "Diaz"};
+    private static final String[] COMPANIES = {"Tecnologias", "Servicios", "Ediciones", "Consultores", "Distribuciones"};
+    private static final String[] CATEGORIES = {"MERCH", "BOOK", "CLOTHES", "STATIONERY", "ELECTRONICS"};
+    private static final String[][] PRODUCT_NAMES = {
+            {"Llavero UPM", "Taza UPM", "Pin ETSISI", "Gorra UPM"},
+            {"Libro POO", "Manual Java", "Novela", "Apuntes Calculo"},
+            {"Camiseta UPM", "Sudadera ETSISI", "Bufanda UPM", "Polo UPM"},
+            {"Libreta UPM", "Boligrafo", "Carpeta", "Estuche"},
+            {"Raton UPM", "USB 32GB", "Auriculares", "Cargador USB-C"}};
+    private static final int[][] PRICE_RANGES = {{300, 1500}, {900, 4500}, {1200, 3500}, {100, 1200}, {800, 6000}};
+    private static final String[] SERVICE_TYPES = {"TRANSPORT", "EVENT", "INSURANCE"};
+    private static final LocalDate FIRST_EVENT_DATE = LocalDate.of(2090, 1, 1);  // Always past the planning rules.
+    private static final int EVENT_DAYS = 365;
+    private static final int MAX_TICKET_LINES = 100;
+    private static final int EVENT_RETRIES = 8;
+
+    // Sizes
+    private long seed;
+    private int cashiers = 20;
+    private int clients = 500;
+    private int products = 180;
+    private int services = 20;
+    private int tickets = 1000;
+    // Shape
+    private double companyShare = 0.25;          // NIF clients
+    private double customizableShare = 0.15;
+    private double eventShare = 0.10;            // Split between addFood and addMeeting
+    private double averageLines = 8;
+    private int maxLines = 40;
+    private double skuSkew = 1.1;                // Zipf exponent (0 = uniform)
+    private double cashierSkew = 0.8;
+    private int openTickets = 16;                // Tickets in progress at once
+    private double removeShare = 0.03;
+    private boolean exit = true;
+
+    public WorkloadGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws IOException {
+        WorkloadGenerator generator = new WorkloadGenerator(42L);
+        Path out = null;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--no-exit")) {
+                generator.setExit(false);
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                usage("Missing value for " + option);
+                return;
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--seed" -> generator.setSeed(Long.parseLong(value));
+                case "--cashiers" -> generator.setCashiers(Integer.parseInt(value));
+                case "--clients" -> generator.setClients(Integer.parseInt(value));
+                case "--products" -> generator.setProducts(Integer.parseInt(value));
+                case "--services" -> generator.setServices(Integer.parseInt(value));
+                case "--tickets" -> generator.setTickets(Integer.parseInt(value));
+                case "--company-share" -> generator.setCompanyShare(Double.parseDouble(value));
+                case "--customizable-share" -> generator.setCustomizableShare(Double.parseDouble(value));
+                case "--event-share" -> generator.setEventShare(Double.parseDouble(value));
+                case "--avg-lines" -> generator.setAverageLines(Double.parseDouble(value));
+                case "--max-lines" -> generator.setMaxLines(Integer.parseInt(value));
+                case "--sku-skew" -> generator.setSkuSkew(Double.parseDouble(value));
+                case "--cashier-skew" -> generator.setCashierSkew(Double.parseDouble(value));
+                case "--open-tickets" -> generator.setOpenTickets(Integer.parseInt(value));
+                case "--remove-share" -> generator.setRemoveShare(Double.parseDouble(value));
+                case "--out" -> out = Path.of(value);
+                default -> {
+                    usage("Unknown option " + option);
+                    return;
+                }
+            }
+        }
+
+        Writer writer = new BufferedWriter(out == null
+                ? new OutputStreamWriter(System.out, StandardCharsets.UTF_8)
+                : Files.newBufferedWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        try {
+            generator.write(writer);
+        } finally {
+            writer.flush();
+            if (out != null) {
+                writer.close();
+            }
+        }
+        if (generator.getCatalogSize() > 200) {
+            System.err.println("Note: Run App with -Dupm.maxProducts=" + generator.getCatalogSize() + ".");
+        }
+    }
+
+    private static void usage(String problem) {
+        PrintStream err = System.err;
+        err.println("Error: " + problem + ".");
+        err.println("Usage: WorkloadGenerator [--seed n] [--cashiers n] [--clients n] [--products n] [--services n]");
+        err.println("       [--tickets n] [--company-share f] [--customizable-share f] [--event-share f]");
+        err.println("       [--avg-lines f] [--max-lines n] [--sku-skew s] [--cashier-skew s] [--open-tickets n]");
+        err.println("       [--remove-share f] [--no-exit] [--out file]");
+    }
+
+    // ------------------------------------------------------------------ Output
+
+    // Full script: setup, tickets, then 'exit' (unless disabled).
+    public void write(Appendable out) throws IOException {
+        out.append("echo \"Workload seed=").append(String.valueOf(seed))
+                .append(" tickets=").append(String.valueOf(tickets))
+                .append(" products=").append(String.valueOf(products))
+                .append(" skew=").append(String.valueOf(skuSkew)).append("\"\n");
+        CatalogPlan catalog = planCatalog();
+        writeSetup(out, catalog);
+        writeTickets(out, catalog, "T");
+        if (exit) {
+            out.append("exit\n");
+        }
+    }
+
+    // Setup only: cashiers, clients, catalog.
+    public void writeSetup(Appendable out) throws IOException {
+        writeSetup(out, planCatalog());
+    }
+
+    // Tickets only, with IDs <prefix><n>: the same stream for every prefix, so it can be replayed
+    // again and again against one store.
+    public void writeTickets(Appendable out, String ticketPrefix) throws IOException {
+        writeTickets(out, planCatalog(), ticketPrefix);
+    }
+
+    private void writeSetup(Appendable out, CatalogPlan catalog) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < cashiers; i++) {
+            out.append("cash add ").append(cashierId(i)).append(" \"").append(personName(random))
+                    .append("\" cashier").append(String.valueOf(i + 1)).append("@upm.es\n");
+        }
+        for (int i = 0; i < clients; i++) {
+            boolean company = isCompany(i);
+            String name = company
+                    ? COMPANIES[random.nextInt(COMPANIES.length)] + " " + SURNAMES[random.nextInt(SURNAMES.length)] + " SL"
+                    : personName(random);
+            out.append("client add \"").append(name).append("\" ").append(clientId(i))
+                    .append(company ? " empresa" : " cliente").append(String.valueOf(i + 1)).append("@upm.es ")
+                    .append(cashierId(random.nextInt(cashiers))).append('\n');
+        }
+        for (int i = 0; i < products; i++) {
+            String id = String.valueOf(i + 1);
+            int category = random.nextInt(CATEGORIES.length);
+            String price = formatCents(PRICE_RANGES[category][0]
+                    + random.nextInt(PRICE_RANGES[category][1] - PRICE_RANGES[category][0]));
+            switch (catalog.kinds[i]) {
+                case FOOD, MEETING -> {
+                    boolean food = catalog.kinds[i] == Kind.FOOD;
+                    String date = FIRST_EVENT_DATE.plusDays(random.nextInt(EVENT_DAYS)).toString();
+                    out.append(food ? "prod addFood " : "prod addMeeting ").append(id)
+                            .append(food ? " \"Comida " : " \"Reunion ").append(id).append("\" ")
+                            .append(price).append(' ').append(date).append(' ')
+                            .append(String.valueOf(catalog.limits[i])).append('\n');
+                }
+                case CUSTOMIZABLE -> out.append("prod add ").append(id).append(" \"")
+                        .append(productName(category, random)).append(" personalizado ").append(id).append("\" ")
+                        .append(CATEGORIES[category]).append(' ').append(price).append(' ')
+                        .append(String.valueOf(catalog.limits[i])).append('\n');
+                default -> out.append("prod add ").append(id).append(" \"")
+                        .append(productName(category, random)).append(' ').append(id).append("\" ")
+                        .append(CATEGORIES[category]).append(' ').append(price).append('\n');
+            }
+        }
+        for (int i = 0; i < services; i++) {
+            out.append("prod add ").append(FIRST_EVENT_DATE.plusDays(random.nextInt(EVENT_DAYS)).toString())
+                    .append(' ').append(SERVICE_TYPES[i % SERVICE_TYPES.length]).append('\n');
+        }
+    }
+
+    private void writeTickets(Appendable out, CatalogPlan catalog, String ticketPrefix) throws IOException {
+        // Seed: Independent of the setup stream, so writeTickets alone gives the same tickets.
+        SplittableRandom random = new SplittableRandom(seed ^ 0x5DEECE66DL);
+        Zipf skus = new Zipf(products, skuSkew, random);
+        Zipf busy = new Zipf(cashiers, cashierSkew, random);
+        List<OpenTicket> open = new ArrayList<>(openTickets);
+        int created = 0;
+        while (created < tickets || !open.isEmpty()) {
+            if (created < tickets && (open.size() < openTickets || random.nextInt(4) == 0 && open.size() < 2 * openTickets)) {
+                open.add(openTicket(out, ticketPrefix + (++created), busy, random));
+                continue;
+            }
+            int slot = random.nextInt(open.size());
+            OpenTicket ticket = open.get(slot);
+            if (ticket.remaining == 0) {
+                out.append("ticket print ").append(ticket.id).append(' ').append(ticket.cashierId).append('\n');
+                open.set(slot, open.get(open.size() - 1));
+                open.remove(open.size() - 1);
+            } else {
+                addLine(out, ticket, catalog, skus, random);
+            }
+        }
+    }
+
+    private OpenTicket openTicket(Appendable out, String ticketId, Zipf busy, SplittableRandom random) throws IOException {
+        int client = random.nextInt(clients);
+        char type = 'p';
+        if (isCompany(client)) {
+            int roll = random.nextInt(10);
+            type = services == 0 || roll < 5 ? 'P' : (roll < 8 ? 'c' : 's');
+        }
+        // Lines: Exponential around the average, at least 1 (2 for mixed tickets).
+        int lines = 1 + (int) (-Math.log(1.0 - random.nextDouble()) * (averageLines - 1));
+        lines = Math.max(type == 'c' ? 2 : 1, Math.min(lines, maxLines));
+        OpenTicket ticket = new OpenTicket(ticketId, cashierId(busy.next()), type, lines);
+        out.append("ticket new ").append(ticketId).append(' ').append(ticket.cashierId).append(' ').append(clientId(client));
+        switch (type) {
+            case 'P' -> out.append(" -p");
+            case 'c' -> out.append(" -c");
+            case 's' -> out.append(" -s");
+            default -> { }
+        }
+        out.append('\n');
+        return ticket;
+    }
+
+    private void addLine(Appendable out, OpenTicket ticket, CatalogPlan catalog, Zipf skus, SplittableRandom random) throws IOException {
+        // Remove: Now and then a product is taken back off (never the last one).
+        if (ticket.removable.size() >= 2 && random.nextDouble() < removeShare) {
+            Integer product = ticket.removable.iterator().next();
+            ticket.removable.remove(product);
+            out.append("ticket remove ").append(ticket.id).append(' ').append(ticket.cashierId)
+                    .append(' ').append(String.valueOf(product + 1)).append('\n');
+            return;
+        }
+        ticket.remaining--;
+        boolean service = switch (ticket.type) {
+            case 's' -> true;
+            case 'c' -> ticket.hasProduct && (!ticket.hasService || random.nextInt(4) == 0);
+            default -> false;
+        };
+        out.append("ticket add ").append(ticket.id).append(' ').append(ticket.cashierId).append(' ');
+        if (service) {
+            ticket.hasService = true;
+            out.append(String.valueOf(1 + random.nextInt(services))).append("S 1\n");
+            return;
+        }
+        ticket.hasProduct = true;
+        int product = skus.next();
+        // Rule: A bookable event appears at most once per ticket.
+        for (int retry = 0; isEvent(catalog, product) && ticket.events.contains(product); retry++) {
+            product = retry < EVENT_RETRIES ? skus.next() : catalog.fallback;
+        }
+        out.append(String.valueOf(product + 1)).append(' ');
+        if (isEvent(catalog, product)) {
+            ticket.events.add(product);
+            out.append(String.valueOf(1 + random.nextInt(Math.min(catalog.limits[product], 4)))).append('\n');
+            return;
+        }
+        ticket.removable.add(product);
+        out.append(String.valueOf(random.nextInt(10) < 7 ? 1 : 2 + random.nextInt(3)));
+        if (catalog.kinds[product] == Kind.CUSTOMIZABLE) {
+            int texts = random.nextInt(catalog.limits[product] + 1);
+            for (int t = 0; t < texts; t++) {
+                out.append(" --p\"").append(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]).append(' ')
+                        .append(String.valueOf(1 + random.nextInt(99))).append('"');
+            }
+        }
+        out.append('\n');
+    }
+
+    // ------------------------------------------------------------------ Plan
+
+    private enum Kind { STANDARD, CUSTOMIZABLE, FOOD, MEETING }
+
+    // [Class] Kind of every product and its limit (custom texts or participants).
+    private static final class CatalogPlan {
+        final Kind[] kinds;
+        final int[] limits;
+        int fallback;                // A product that is never an event.
+
+        CatalogPlan(int size) {
+            kinds = new Kind[size];
+            limits = new int[size];
+        }
+    }
+
+    private CatalogPlan planCatalog() {
+        SplittableRandom random = new SplittableRandom(seed * 31 + 7);
+        CatalogPlan catalog = new CatalogPlan(products);
+        for (int i = 0; i < products; i++) {
+            double roll = random.nextDouble();
+            if (roll < eventShare) {
+                catalog.kinds[i] = roll < eventShare / 2 ? Kind.FOOD : Kind.MEETING;
+                catalog.limits[i] = 10 + random.nextInt(91);
+            } else if (roll < eventShare + customizableShare) {
+                catalog.kinds[i] = Kind.CUSTOMIZABLE;
+                catalog.limits[i] = 1 + random.nextInt(5);
+            } else {
+                catalog.kinds[i] = Kind.STANDARD;
+            }
+        }
+        catalog.fallback = -1;
+        for (int i = 0; i < products && catalog.fallback < 0; i++) {
+            if (!isEvent(catalog, i)) {
+                catalog.fallback = i;
+            }
+        }
+        if (catalog.fallback < 0) {
+            // Check: Every product an event; make the first one standard so tickets can always grow.
+            catalog.kinds[0] = Kind.STANDARD;
+            catalog.fallback = 0;
+        }
+        return catalog;
+    }
+
+    private static boolean isEvent(CatalogPlan catalog, int product) {
+        return catalog.kinds[product] == Kind.FOOD || catalog.kinds[product] == Kind.MEETING;
+    }
+
+    // [Class] A ticket still being filled.
+    private static final class OpenTicket {
+        final String id;
+        final String cashierId;
+        final char type;             // p: individual, P/c/s: company -p/-c/-s
+        int remaining;
+        boolean hasProduct;
+        boolean hasService;
+        final Set<Integer> events = new HashSet<>();
+        final Set<Integer> removable = new LinkedHashSet<>();
+
+        OpenTicket(String id, String cashierId, char type, int lines) {
+            this.id = id;
+            this.cashierId = cashierId;
+            this.type = type;
+            this.remaining = lines;
+        }
+    }
+
+    // [Class] Zipf(s) sampler over n items; ranks are shuffled so the hot items are spread over the IDs.
+    private static final class Zipf {
+        private final SplittableRandom random;
+        private final int[] items;
+        private final double[] cumulative;
+
+        Zipf(int n, double exponent, SplittableRandom random) {
+            this.random = random;
+            this.items = new int[n];
+            for (int i = 0; i < n; i++) {
+                items[i] = i;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = items[i];
+                items[i] = items[j];
+                items[j] = swap;
+            }
+            if (exponent == 0.0) {
+                this.cumulative = null;
+                return;
+            }
+            this.cumulative = new double[n];
+            double total = 0.0;
+            for (int rank = 0; rank < n; rank++) {
+                total += 1.0 / Math.pow(rank + 1, exponent);
+                cumulative[rank] = total;
+            }
+            for (int rank = 0; rank < n; rank++) {
+                cumulative[rank] /= total;
+            }
+        }
+
+        int next() {
+            if (cumulative == null) {
+                return items[random.nextInt(items.length)];
+            }
+            double u = random.nextDouble();
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < u) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return items[low];
+        }
+    }
+
+    // ------------------------------------------------------------------ IDs and names
+
+    private boolean isCompany(int client) {
+        // Logic: Spread evenly, so every prefix of the client list has the same mix.
+        return (int) ((client + 1) * companyShare) != (int) (client * companyShare);
+    }
+
+    static String cashierId(int index) {
+        return String.format("UW%07d", index + 1);
+    }
+
+    private String clientId(int index) {
+        if (isCompany(index)) {
+            return NIF_LETTERS.charAt(index % NIF_LETTERS.length()) + String.format("%08d", 20_000_000 + index);
+        }
+        int number = 10_000_000 + index;
+        return String.valueOf(number) + DNI_LETTERS.charAt(number % DNI_LETTERS.length());
+    }
+
+    private static String personName(SplittableRandom random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + SURNAMES[random.nextInt(SURNAMES.length)];
+    }
+
+    private static String productName(int category, SplittableRandom random) {
+        String[] names = PRODUCT_NAMES[category];
+        return names[random.nextInt(names.length)];
+    }
+
+    private static String formatCents(int cents) {
+        int fraction = cents % 100;
+        return (cents / 100) + "." + (fraction < 10 ? "0" : "") + fraction;
+    }
+
+    // ------------------------------------------------------------------ Tunables
+
+    public int getCatalogSize() {
+        return products + services;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public void setCashiers(int cashiers) {
+        this.cashiers = positive(cashiers, "Cashiers");
+    }
+
+    public void setClients(int clients) {
+        this.clients = positive(clients, "Clients");
+    }
+
+    public void setProducts(int products) {
+        this.products = positive(products, "Products");
+    }
+
+    public void setServices(int services) {
+        if (services < 0) {
+            throw new IllegalArgumentException("Error: Services cannot be negative.");
+        }
+        this.services = services;
+    }
+
+    public void setTickets(int tickets) {
+        if (tickets < 0) {
+            throw new IllegalArgumentException("Error: Tickets cannot be negative.");
+        }
+        this.tickets = tickets;
+    }
+
+    public void setCompanyShare(double companyShare) {
+        this.companyShare = share(companyShare, "Company share");
+    }
+
+    public void setCustomizableShare(double customizableShare) {
+        this.customizableShare = share(customizableShare, "Customizable share");
+    }
+
+    public void setEventShare(double eventShare) {
+        this.eventShare = share(eventShare, "Event share");
+    }
+
+    public void setAverageLines(double averageLines) {
+        if (averageLines < 1.0) {
+            throw new IllegalArgumentException("Error: Average lines must be at least 1.");
+        }
+        this.averageLines = averageLines;
+    }
+
+    public void setMaxLines(int maxLines) {
+        if (maxLines < 2 || maxLines > MAX_TICKET_LINES) {
+            throw new IllegalArgumentException("Error: Max lines must be between 2 and " + MAX_TICKET_LINES + ".");
+        }
+        this.maxLines = maxLines;
+    }
+
+    public void setSkuSkew(double skuSkew) {
+        this.skuSkew = skew(skuSkew, "SKU skew");
+    }
+
+    public void setCashierSkew(double cashierSkew) {
+        this.cashierSkew = skew(cashierSkew, "Cashier skew");
+    }
+
+    public void setOpenTickets(int openTickets) {
+        this.openTickets = positive(openTickets, "Open tickets");
+    }
+
+    public void setRemoveShare(double removeShare) {
+        this.removeShare = share(removeShare, "Remove share");
+    }
+
+    public void setExit(boolean exit) {
+        this.exit = exit;
+    }
+
+    private static int positive(int value, String what) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("Error: " + what + " must be greater than 0.");
+        }
+        return value;
+    }
+
+    private static double share(double value, String what) {
+        if (value < 0.0 || value > 1.0) {
+            throw new IllegalArgumentException("Error: " + what + " must be between 0 and 1.");
+        }
+        return value;
+    }
+
+    private static double skew(double value, String what) {
+        if (value < 0.0) {
+            throw new IllegalArgumentException("Error: " + what + " cannot be negative.");
+        }
+        return value;
+    }
+}
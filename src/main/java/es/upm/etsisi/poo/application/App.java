@@ -1,33 +1,114 @@
 package es.upm.etsisi.poo.application;
 
-import java.io.File;
+import java.util.List;
 import java.util.Scanner;
-import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.text.ParseException;
+import java.io.FileReader;
+import java.io.PrintStream;
+import java.io.IOException;
+import java.io.FileDescriptor;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.FileOutputStream;
+import java.io.BufferedOutputStream;
+
+import javax.management.JMException;
 
 import es.upm.etsisi.poo.ui.CommandHandler;
+import es.upm.etsisi.poo.ui.CommandMetrics;
+import es.upm.etsisi.poo.domain.product.Catalog;
 import es.upm.etsisi.poo.domain.exceptions.PersistenceException;
 import es.upm.etsisi.poo.domain.exceptions.UPMStoreDomainException;
+import es.upm.etsisi.poo.infrastructure.monitoring.StoreRecording;
 import es.upm.etsisi.poo.infrastructure.persistence.FilePersistenceHandler;
 
 // [Main] Application Entry Point.
 public class App {
-    public static void main(String[] args) throws FileNotFoundException {
-        FilePersistenceHandler persistence = new FilePersistenceHandler();
-        Store store;
+    private static final String MAX_PRODUCTS_PROPERTY = "upm.maxProducts";
+    private static final String CHECKPOINT_INTERVAL_PROPERTY = "upm.checkpointEvery";
+    private static final String CHECKPOINT_SECONDS_PROPERTY = "upm.checkpointSeconds";
+    private static final String REPLAY_THREADS_PROPERTY = "upm.replayThreads";
+    private static final String SERVER_PORT_PROPERTY = "upm.serverPort";
+    private static final String MAX_SESSIONS_PROPERTY = "upm.maxSessions";
+    private static final String SESSION_IDLE_PROPERTY = "upm.sessionIdleSeconds";
+    private static final String DRAIN_SECONDS_PROPERTY = "upm.drainSeconds";
+    private static final String JFR_MAX_SIZE_PROPERTY = "upm.jfrMaxSizeMb";
+    private static final String JFR_MAX_AGE_PROPERTY = "upm.jfrMaxAgeMinutes";
+    private static final String JFR_FILE_PROPERTY = "upm.jfrFile";
+    private static final String BATCH_OPTION = "--batch";
+    private static final String NO_ECHO_OPTION = "--no-echo";
+    private static final String PARALLEL_OPTION = "--parallel";
+    private static final String TILLS_OPTION = "--tills";
+    private static final String SERVER_OPTION = "--server";
+    private static final String JFR_OPTION = "--jfr";
+    private static final String TILL_OUTPUT_SUFFIX = ".out";
+    private static final String FLUSH_COMMAND = "flush";
+    private static final int INPUT_BUFFER_SIZE = 64 * 1024;
+    private static final int BATCH_OUTPUT_BUFFER_SIZE = 1 << 20;
+    private static final int DEFAULT_JFR_MAX_SIZE_MB = 256;
+    private static final int DEFAULT_JFR_MAX_AGE_MINUTES = 60;
+    private static final String DEFAULT_JFR_FILE = "upm-store.jfr";
+
+    // Usage: App [--batch] [--no-echo] [--parallel] [<script>]
+    //        App --tills [--no-echo] <script>...     (one concurrent till per script)
+    //        App --server                            (one till per TCP connection)
+    //        --jfr in any mode starts a continuous Flight Recorder ring buffer.
+    public static void main(String[] args) throws IOException {
+        boolean batch = false;
+        boolean echo = true;
+        boolean parallel = false;
+        boolean tills = false;
+        boolean server = false;
+        boolean flightRecording = false;
+        List<String> scripts = new ArrayList<>();
+        for (String arg : args) {
+            switch (arg) {
+                case BATCH_OPTION -> batch = true;
+                case NO_ECHO_OPTION -> echo = false;
+                case PARALLEL_OPTION -> parallel = true;
+                case TILLS_OPTION -> tills = true;
+                case SERVER_OPTION -> server = true;
+                case JFR_OPTION -> flightRecording = true;
+                default -> scripts.add(arg);
+            }
+        }
+        publishMetrics();
+        if (flightRecording) {
+            startFlightRecording();
+        }
+        if (server) {
+            runServer();
+            return;
+        }
+        if (tills) {
+            runTills(scripts, echo);
+            return;
+        }
+        String inputFile = scripts.isEmpty() ? null : scripts.get(scripts.size() - 1);
+        // Mode: Batch buffers all output in one large stream, flushed on exit or 'flush'.
+        if (batch && inputFile != null) {
+            System.setOut(new PrintStream(new BufferedOutputStream(
+                    new FileOutputStream(FileDescriptor.out), BATCH_OUTPUT_BUFFER_SIZE), false));
+        }
         try {
-            store = persistence.load(); // Load state
-            System.out.println("Data loaded successfully.");
-        } catch (PersistenceException e) {
-            System.out.println("Warning: Could not load data (" + e.getMessage() + "). Starting with empty store.");
-            store = new Store(); // Fallback
+            run(inputFile, echo, parallel);
+        } finally {
+            System.out.flush();
         }
-        store.refreshCounters(); // Refresh static counters
+    }
 
-        Scanner inputScanner;
+    private static void run(String inputFile, boolean echo, boolean parallel) throws IOException {
+        FilePersistenceHandler persistence = createPersistence();
+        Store store = open(persistence);
 
-        // Logic: Load file if argument exists.
-        if (args.length > 0) {
-            inputScanner = new Scanner(new File(args[0]));
+        // Logic: Scripts are read line by line through a buffered reader; the console via Scanner.
+        BufferedReader inputReader = null;
+        Scanner inputScanner = null;
+        if (inputFile != null) {
+            inputReader = new BufferedReader(new FileReader(inputFile), INPUT_BUFFER_SIZE);
         } else {
             inputScanner = new Scanner(System.in);
         }
@@ -35,21 +116,35 @@ public class App {
         System.out.println("Welcome to the ticket module App.");
         System.out.println("Ticket module. Type 'help' to see commands.");
 
+        // Mode: Parallel replay of a script, one partition per cashier.
+        // Config: -Dupm.replayThreads=<n> (default: available processors).
+        if (parallel && inputReader != null) {
+            int threads = Integer.getInteger(REPLAY_THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+            ParallelReplay replay = new ParallelReplay(store, persistence, Math.max(1, threads), echo);
+            if (replay.run(inputReader)) {
+                shutdown(persistence, store);
+            }
+            inputReader.close();
+            return;
+        }
+
         // Init: CommandHandler.
         CommandHandler handler = new CommandHandler(store);
 
         boolean running = true;
         while (running) {
             String inputLine;
-            if (args.length > 0) {
+            if (inputReader != null) {
                 // Mode: File Input.
-                if (inputScanner.hasNextLine()) {
-                    inputLine = inputScanner.nextLine().trim();
-                    System.out.println("tUPM> " + inputLine);
-                } else {
+                String line = inputReader.readLine();
+                if (line == null) {
                     running = false;
                     continue;
                 }
+                inputLine = line.trim();
+                if (echo) {
+                    System.out.println("tUPM> " + inputLine);
+                }
             } else {
                 // Mode: Interactive.
                 System.out.print("tUPM> ");
@@ -57,24 +152,170 @@ public class App {
             }
 
             if (inputLine.equalsIgnoreCase("exit")) {
-                // Shutdown: Save state and exit.
-                System.out.println("Closing application.");
-                try {
-                    persistence.save(store); // Save state
-                    System.out.println("Data saved successfully.");
-                } catch (PersistenceException e) {
-                    System.err.println("CRITICAL: Failed to save data: " + e.getMessage());
-                }
-                System.out.println("Goodbye!");
+                shutdown(persistence, store);
                 running = false;
+            } else if (inputLine.equalsIgnoreCase(FLUSH_COMMAND)) {
+                // Batch: Push buffered output now.
+                System.out.flush();
             } else if (!inputLine.isEmpty()) {
                 try {
                     handler.handle(inputLine);
+                    persistence.checkpointIfDue(store);
                 } catch (UPMStoreDomainException e) {
                     System.out.println("Error: " + e.getMessage());
                 }
             }
         }
-        inputScanner.close();
+        if (inputReader != null) {
+            inputReader.close();
+        } else {
+            inputScanner.close();
+        }
+    }
+
+    // Mode: Concurrent tills. Each script is one till sharing the store; its output goes to
+    // <script>.out. The store is saved once every till has closed.
+    private static void runTills(List<String> scripts, boolean echo) throws IOException {
+        FilePersistenceHandler persistence = createPersistence();
+        Store store = open(persistence);
+
+        List<Thread> running = new ArrayList<>();
+        List<AutoCloseable> resources = new ArrayList<>();
+        try {
+            for (String script : scripts) {
+                BufferedReader input = new BufferedReader(new FileReader(script), INPUT_BUFFER_SIZE);
+                resources.add(input);
+                PrintStream output = new PrintStream(new BufferedOutputStream(
+                        new FileOutputStream(script + TILL_OUTPUT_SUFFIX)), false);
+                resources.add(output);
+                TillSession till = new TillSession(script, store, persistence, input, output, echo);
+                Thread thread = new Thread(till, "till-" + script);
+                thread.start();
+                running.add(thread);
+            }
+            for (Thread thread : running) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (AutoCloseable resource : resources) {
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    System.err.println("Warning: " + e.getMessage());
+                }
+            }
+        }
+        System.out.println(running.size() + " tills closed.");
+        shutdown(persistence, store);
+    }
+
+    // Mode: Till server. Typing 'exit' on the console, or stopping the process, drains the
+    // connected tills and saves the store.
+    // Config: -Dupm.serverPort=<p> (0 = any free port), -Dupm.maxSessions=<n>,
+    // -Dupm.sessionIdleSeconds=<t> (0 = no limit), -Dupm.drainSeconds=<t>.
+    private static void runServer() throws IOException {
+        FilePersistenceHandler persistence = createPersistence();
+        Store store = open(persistence);
+        TillServer server = new TillServer(store, persistence,
+                Integer.getInteger(SERVER_PORT_PROPERTY, TillServer.DEFAULT_PORT),
+                Integer.getInteger(MAX_SESSIONS_PROPERTY, TillServer.DEFAULT_MAX_SESSIONS),
+                Integer.getInteger(SESSION_IDLE_PROPERTY, 0),
+                Integer.getInteger(DRAIN_SECONDS_PROPERTY, TillServer.DEFAULT_DRAIN_SECONDS));
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (server.stop()) {
+                shutdown(persistence, store);
+            }
+        }, "till-server-shutdown"));
+        System.out.println("Till server listening on port " + server.getPort() + ".");
+
+        BufferedReader console = new BufferedReader(new InputStreamReader(System.in));
+        String line;
+        while ((line = console.readLine()) != null) {
+            if (line.trim().equalsIgnoreCase("exit")) {
+                if (server.stop()) {
+                    shutdown(persistence, store);
+                }
+                return;
+            }
+        }
+        // Logic: No console (e.g. started in the background): serve until the process is stopped.
+        try {
+            server.awaitStop();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Metrics: Command latencies and errors, also shown by the 'stats' command.
+    private static void publishMetrics() {
+        try {
+            CommandMetrics.shared().registerMBean();
+        } catch (JMException e) {
+            System.err.println("Warning: Command metrics not available over JMX: " + e.getMessage());
+        }
+    }
+
+    // Monitoring: Continuous JFR ring buffer with the store events, dumped on exit.
+    // Config: -Dupm.jfrMaxSizeMb=<mb>, -Dupm.jfrMaxAgeMinutes=<m>, -Dupm.jfrFile=<file>.
+    private static void startFlightRecording() {
+        Path dumpFile = Path.of(System.getProperty(JFR_FILE_PROPERTY, DEFAULT_JFR_FILE));
+        try {
+            StoreRecording.start(
+                    Integer.getInteger(JFR_MAX_SIZE_PROPERTY, DEFAULT_JFR_MAX_SIZE_MB) * 1024L * 1024L,
+                    Duration.ofMinutes(Integer.getInteger(JFR_MAX_AGE_PROPERTY, DEFAULT_JFR_MAX_AGE_MINUTES)),
+                    dumpFile);
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            System.err.println("Warning: Flight recording not started: " + e.getMessage());
+        }
+    }
+
+    private static FilePersistenceHandler createPersistence() {
+        // Config: -Dupm.checkpointEvery=<n> / -Dupm.checkpointSeconds=<t> between snapshot checkpoints.
+        return new FilePersistenceHandler(
+                Integer.getInteger(CHECKPOINT_INTERVAL_PROPERTY, FilePersistenceHandler.DEFAULT_CHECKPOINT_INTERVAL),
+                Integer.getInteger(CHECKPOINT_SECONDS_PROPERTY, FilePersistenceHandler.DEFAULT_CHECKPOINT_SECONDS));
+    }
+
+    // Startup: Snapshot, then archive, then journal replay.
+    private static Store open(FilePersistenceHandler persistence) {
+        // Config: -Dupm.maxProducts=<n> raises the catalog limit.
+        int maxProducts = Integer.getInteger(MAX_PRODUCTS_PROPERTY, Catalog.DEFAULT_MAX_PRODUCTS);
+        Store store;
+        try {
+            store = persistence.load(maxProducts); // Load state
+            System.out.println("Data loaded successfully.");
+        } catch (PersistenceException e) {
+            // Safety: The unreadable snapshot is kept; this session's changes are not saved over it.
+            System.out.println("Warning: Could not load data (" + e.getMessage() + "). Starting with empty store; "
+                    + "it will not be saved over the existing file.");
+            store = new Store(maxProducts); // Fallback
+        }
+        try {
+            persistence.openArchive(store); // Closed tickets live on disk
+        } catch (PersistenceException e) {
+            System.out.println("Warning: Ticket archive unavailable (" + e.getMessage() + "). Closed tickets stay in memory.");
+        }
+        try {
+            persistence.openJournal(store); // Replay changes since the last snapshot
+        } catch (PersistenceException e) {
+            System.out.println("Warning: Journal unavailable (" + e.getMessage() + "). Changes are saved on exit only.");
+        }
+        store.refreshCounters(); // Refresh static counters
+        return store;
+    }
+
+    // Shutdown: Save state and exit.
+    private static void shutdown(FilePersistenceHandler persistence, Store store) {
+        System.out.println("Closing application.");
+        try {
+            persistence.save(store); // Save state
+            System.out.println("Data saved successfully.");
+        } catch (PersistenceException e) {
+            System.err.println("CRITICAL: Failed to save data: " + e.getMessage());
+        }
+        System.out.println("Goodbye!");
     }
 }
\ No newline at end of file
@@ -0,0 +1,245 @@
+package es.upm.etsisi.poo.application;
+
+import java.util.Map;
+import java.util.List;
+import java.util.HashMap;
+import java.util.ArrayList;
+import java.io.PrintStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.io.BufferedReader;
+import java.util.concurrent.Future;
+import java.io.InterruptedIOException;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+
+import es.upm.etsisi.poo.ui.CommandHandler;
+import es.upm.etsisi.poo.ui.CommandTokenizer;
+import es.upm.etsisi.poo.domain.ticket.Ticket;
+import es.upm.etsisi.poo.domain.exceptions.UPMStoreDomainException;
+import es.upm.etsisi.poo.infrastructure.persistence.FilePersistenceHandler;
+
+// [Class] Replays a command script on several threads.
+// Partition: 'ticket new|add|remove|print' run on their cashier's partition, in script order.
+// Barrier: Every other command (catalog, users, listings, flush, exit) runs alone once all earlier
+// commands are done; so does a ticket command naming a ticket another cashier already uses.
+// Output: Each command writes into its own buffer and buffers are emitted in script order, so the
+// output is the same as a serial run.
+public class ParallelReplay {
+    private static final int MAX_PHASE_COMMANDS = 8192;    // Bounds buffered output between barriers.
+    private static final String EXIT_COMMAND = "exit";
+    private static final String FLUSH_COMMAND = "flush";
+
+    private final Store store;
+    private final FilePersistenceHandler persistence;
+    private final int threads;
+    private final boolean echo;
+    private final CommandHandler handler;                           // Barriers run on the calling thread.
+    private final CommandTokenizer tokenizer = new CommandTokenizer();  // Planning only.
+
+    public ParallelReplay(Store store, FilePersistenceHandler persistence, int threads, boolean echo) {
+        this.store = store;
+        this.persistence = persistence;
+        this.threads = threads;
+        this.echo = echo;
+        this.handler = new CommandHandler(store);
+    }
+
+    // Returns true if the script reached 'exit' (shutdown is left to the caller).
+    public boolean run(BufferedReader script) throws IOException {
+        // Lazy: Materialize deferred tickets once, before any worker looks them up.
+        store.loadTickets();
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads, task -> {
+            Thread worker = new Thread(task, "replay-worker");
+            worker.setDaemon(true);
+            return worker;
+        });
+        try {
+            List<Slot> phase = new ArrayList<>();
+            Map<String, List<Slot>> partitions = new LinkedHashMap<>();
+            Map<String, String> claims = new HashMap<>();  // Ticket ID -> cashier using it in this phase.
+            String line;
+            while ((line = script.readLine()) != null) {
+                String inputLine = line.trim();
+                String cashierId = inputLine.isEmpty() ? null : partitionOf(inputLine, claims);
+                if (inputLine.isEmpty() || cashierId != null) {
+                    Slot slot = new Slot(inputLine);
+                    phase.add(slot);
+                    if (cashierId != null) {
+                        partitions.computeIfAbsent(cashierId, id -> new ArrayList<>()).add(slot);
+                    }
+                    if (phase.size() >= MAX_PHASE_COMMANDS) {
+                        runPhase(phase, partitions, workers);
+                        claims.clear();
+                    }
+                    continue;
+                }
+
+                // Barrier: Finish and emit everything before this command, then run it alone.
+                runPhase(phase, partitions, workers);
+                claims.clear();
+                if (echo) {
+                    System.out.println("tUPM> " + inputLine);
+                }
+                if (inputLine.equalsIgnoreCase(EXIT_COMMAND)) {
+                    return true;
+                } else if (inputLine.equalsIgnoreCase(FLUSH_COMMAND)) {
+                    System.out.flush();
+                } else {
+                    execute(handler, inputLine, System.out);
+                    checkpoint();
+                }
+            }
+            runPhase(phase, partitions, workers);
+            return false;
+        } finally {
+            workers.shutdownNow();
+            System.out.flush();
+        }
+    }
+
+    // Plan: Cashier partition of a ticket command, or null if it must run as a barrier.
+    // Mirrors the argument layout of TicketCommand.
+    private String partitionOf(String inputLine, Map<String, String> claims) {
+        tokenizer.reset(inputLine);
+        if (!tokenizer.commandIs("ticket") || !tokenizer.hasNext()) {
+            return null;
+        }
+        switch (tokenizer.next()) {
+            case "new" -> {
+                int last = tokenizer.remaining() - 1;
+                if (tokenizer.remaining() > 2 && tokenizer.startsWith(last, "-")) {
+                    tokenizer.dropLast();
+                }
+                String ticketId = tokenizer.remaining() > 2 ? tokenizer.next() : null;
+                if (tokenizer.remaining() < 2) {
+                    return null;
+                }
+                String cashierId = tokenizer.get(0);
+                return (ticketId == null || claim(claims, ticketId, cashierId)) ? cashierId : null;
+            }
+            case "add", "remove", "print" -> {
+                if (tokenizer.remaining() < 2) {
+                    return null;
+                }
+                String cashierId = tokenizer.get(1);
+                return claim(claims, tokenizer.get(0), cashierId) ? cashierId : null;
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    // Check: A ticket ID belongs to one cashier per phase: its owner, or the first cashier to name it.
+    private boolean claim(Map<String, String> claims, String ticketId, String cashierId) {
+        String owner = claims.get(ticketId);
+        if (owner == null) {
+            Ticket<?> existing = store.getTicket(ticketId);
+            owner = (existing == null) ? cashierId : existing.getCashierId();
+            if (owner == null) {
+                return false;
+            }
+            claims.put(ticketId, owner);
+        }
+        return owner.equals(cashierId);
+    }
+
+    private void runPhase(List<Slot> phase, Map<String, List<Slot>> partitions, ExecutorService workers)
+            throws IOException {
+        if (phase.isEmpty()) {
+            return;
+        }
+        List<Future<?>> running = new ArrayList<>(partitions.size());
+        for (List<Slot> partition : partitions.values()) {
+            running.add(workers.submit(() -> runPartition(partition)));
+        }
+        try {
+            for (Future<?> future : running) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Replay interrupted.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+
+        // Merge: Script order. A crashed command ends the replay as it would a serial run; commands
+        // of other cashiers already past it have still been applied.
+        PrintStream console = System.out;
+        for (Slot slot : phase) {
+            if (slot.line.isEmpty()) {
+                if (echo) {
+                    console.println("tUPM> " + slot.line);
+                }
+                continue;
+            }
+            console.write(slot.output, 0, slot.output.length);
+            if (slot.failure != null) {
+                console.flush();
+                throw slot.failure;
+            }
+        }
+        phase.clear();
+        partitions.clear();
+        checkpoint();
+    }
+
+    // Output: The worker's own handler prints into one buffer, emptied into each command's slot.
+    private void runPartition(List<Slot> partition) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(buffer, false);
+        CommandHandler workerHandler = new CommandHandler(store, out);
+        for (Slot slot : partition) {
+            try {
+                if (echo) {
+                    out.println("tUPM> " + slot.line);
+                }
+                execute(workerHandler, slot.line, out);
+            } catch (RuntimeException e) {
+                slot.failure = e;
+            } finally {
+                out.flush();
+                slot.output = buffer.toByteArray();
+                buffer.reset();
+            }
+            if (slot.failure != null) {
+                return;
+            }
+        }
+    }
+
+    private static void execute(CommandHandler handler, String inputLine, PrintStream out) {
+        try {
+            handler.handle(inputLine);
+        } catch (UPMStoreDomainException e) {
+            out.println("Error: " + e.getMessage());
+        }
+    }
+
+    private void checkpoint() {
+        try {
+            persistence.checkpointIfDue(store);
+        } catch (UPMStoreDomainException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+
+    // [Class] One script line and what it printed.
+    private static final class Slot {
+        final String line;          // Blank lines are echoed only.
+        byte[] output;
+        RuntimeException failure;
+
+        Slot(String line) {
+            this.line = line;
+        }
+    }
+}
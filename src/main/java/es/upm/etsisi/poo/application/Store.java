@@ -2,13 +2,18 @@ package es.upm.etsisi.poo.application;
 
 
 import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import es.upm.etsisi.poo.domain.user.*;
 import es.upm.etsisi.poo.domain.ticket.*;
 import es.upm.etsisi.poo.domain.product.*;
 import es.upm.etsisi.poo.domain.exceptions.*;
 import es.upm.etsisi.poo.infrastructure.printing.*;
+import es.upm.etsisi.poo.infrastructure.monitoring.*;
 
 // [Model] Data & Logic Hub.
 public class Store implements java.io.Serializable {
@@ -16,23 +21,240 @@ public class Store implements java.io.Serializable {
     private final TicketRepository ticketRepository;
     private final ClientRepository clientRepository;
     private final CashierRepository cashierRepository;
+    private transient volatile TicketLoader pendingTickets;    // Lazy: Tickets still unread in the snapshot.
+    private transient StoreJournal journal;            // Persistence: Write-ahead log of mutations.
+    private transient TicketArchive archive;           // Persistence: CLOSED tickets moved out of memory.
+    private long journalSequence;                      // Persistence: Last journal record folded into this state.
+    // Concurrency: Ticket commands from many tills share the gate. Catalog and user changes,
+    // checkpoints and save hold it alone, so the journal order is the order changes were applied
+    // and a capture never sees a change whose record is still being written.
+    private final ReentrantReadWriteLock gate = new ReentrantReadWriteLock();
+    private final TicketLocks ticketLocks = new TicketLocks();
 
 
-    @SuppressWarnings("Convert2Diamond")
     public Store() {
-        this.catalog = new Catalog();
-        this.ticketRepository = new TicketRepository();
-        this.clientRepository = new ClientRepository();
-        this.cashierRepository = new CashierRepository();
+        this(Catalog.DEFAULT_MAX_PRODUCTS);
+    }
+
+    // Config: Catalog capacity is set per store.
+    public Store(int maxProducts) {
+        this(new Catalog(maxProducts), new TicketRepository(), new ClientRepository(), new CashierRepository());
+    }
+
+    // Persistence: Assemble a store from repositories restored from a snapshot.
+    public Store(Catalog catalog, TicketRepository ticketRepository, ClientRepository clientRepository,
+            CashierRepository cashierRepository) {
+        this.catalog = catalog;
+        this.ticketRepository = ticketRepository;
+        this.clientRepository = clientRepository;
+        this.cashierRepository = cashierRepository;
+    }
+
+    // Persistence: Tickets are read on first access instead of at startup.
+    public void deferTickets(TicketLoader loader) {
+        this.pendingTickets = loader;
+    }
+
+    // Lazy: Materialize deferred tickets before anything reads or changes them.
+    public void loadTickets() throws PersistenceException {
+        if (pendingTickets == null) {
+            return;
+        }
+        // Concurrency: The first till to need tickets loads them; the others wait for it.
+        synchronized (this) {
+            TicketLoader loader = pendingTickets;
+            if (loader == null) {
+                return;
+            }
+            try {
+                loader.loadTickets();
+            } catch (IOException e) {
+                throw new PersistenceException("Error loading tickets: " + e.getMessage(), e);
+            } finally {
+                pendingTickets = null;
+            }
+        }
+    }
+
+    // Concurrency: Held by checkpoints and save while they archive and capture.
+    public Lock exclusiveLock() {
+        return gate.writeLock();
+    }
+
+    // Concurrency: Serialize changes to one ticket; a concurrent print may have re-keyed it meanwhile.
+    private Lock lockTicket(Ticket<?> ticket, String ticketId) throws ResourceNotFoundException {
+        Lock lock = ticketLocks.lockFor(ticket);
+        lock.lock();
+        if (!ticketId.equals(ticket.getId())) {
+            lock.unlock();
+            throw new ResourceNotFoundException("Ticket with ID " + ticketId + " not found.");
+        }
+        return lock;
+    }
+
+    public void setJournal(StoreJournal journal) {
+        this.journal = journal;
+    }
+
+    public void setArchive(TicketArchive archive) {
+        this.archive = archive;
+    }
+
+    // Archive: Move CLOSED tickets out of the repositories; returns how many were moved.
+    public int archiveClosedTickets() throws PersistenceException {
+        if (archive == null) {
+            return 0;
+        }
+        loadTickets();
+        List<Ticket<?>> closed = new ArrayList<>();
+        for (Ticket<?> ticket : ticketRepository.getAll()) {
+            // Check: Ownership of archived copies comes from the recorded owner IDs.
+            if (ticket.getState() == TicketState.CLOSED && ticket.getCashierId() != null && ticket.getClientId() != null) {
+                closed.add(ticket);
+            }
+        }
+        if (closed.isEmpty()) {
+            return 0;
+        }
+        try {
+            archive.archive(closed);
+        } catch (IOException e) {
+            throw new PersistenceException("Error archiving tickets: " + e.getMessage(), e);
+        }
+        for (Ticket<?> ticket : closed) {
+            ticketRepository.remove(ticket);
+            // Logic: Owners keep the ID, so membership survives the move (and a restart).
+            Cashier cashier = findCashierById(ticket.getCashierId());
+            if (cashier != null) {
+                cashier.archiveTicket(ticket);
+            }
+            Client client = findClientById(ticket.getClientId());
+            if (client != null) {
+                client.archiveTicket(ticket);
+            }
+        }
+        return closed.size();
+    }
+
+    // Checkpoint: On a copy rebuilt from snapshot and journal, drop the CLOSED tickets the live
+    // Store has already archived, the way archiveClosedTickets does, without writing them again.
+    public void releaseArchivedTickets() throws PersistenceException {
+        if (archive == null) {
+            return;
+        }
+        loadTickets();
+        for (Ticket<?> ticket : ticketRepository.getAll()) {
+            if (ticket.getState() == TicketState.CLOSED && archive.contains(ticket.getId())) {
+                ticketRepository.remove(ticket);
+                Cashier cashier = findCashierById(ticket.getCashierId());
+                if (cashier != null) {
+                    cashier.archiveTicket(ticket);
+                }
+                Client client = findClientById(ticket.getClientId());
+                if (client != null) {
+                    client.archiveTicket(ticket);
+                }
+            }
+        }
+    }
+
+    // Migration: Snapshots from before owners listed their archived IDs; adopt each archived
+    // ticket into the recorded owners that still exist.
+    public void adoptArchivedTickets() throws PersistenceException {
+        if (archive == null) {
+            return;
+        }
+        try {
+            for (Ticket<?> ticket : archive.findAll()) {
+                Cashier cashier = findCashierById(ticket.getCashierId());
+                if (cashier != null) {
+                    cashier.addArchivedTicket(ticket.getId());
+                }
+                Client client = findClientById(ticket.getClientId());
+                if (client != null) {
+                    client.addArchivedTicket(ticket.getId());
+                }
+            }
+        } catch (IOException e) {
+            throw new PersistenceException("Error reading ticket archive: " + e.getMessage(), e);
+        }
+    }
+
+    // Archive: Lookups fall through to the archive; tickets of removed cashiers stay hidden.
+    private Ticket<?> findArchived(String ticketId) throws PersistenceException {
+        if (archive == null || !archive.contains(ticketId)) {
+            return null;
+        }
+        try {
+            Ticket<?> ticket = archive.find(ticketId);
+            return (ticket != null && isCashierMember(ticket)) ? ticket : null;
+        } catch (IOException e) {
+            throw new PersistenceException("Error reading ticket archive: " + e.getMessage(), e);
+        }
+    }
+
+    private List<Ticket<?>> findArchivedByCashier(Cashier cashier) throws PersistenceException {
+        List<Ticket<?>> tickets = new ArrayList<>();
+        if (archive == null) {
+            return tickets;
+        }
+        try {
+            for (Ticket<?> ticket : archive.findByCashier(cashier.getId())) {
+                if (cashier.hasTicket(ticket.getId())) {
+                    tickets.add(ticket);
+                }
+            }
+            return tickets;
+        } catch (IOException e) {
+            throw new PersistenceException("Error reading ticket archive: " + e.getMessage(), e);
+        }
+    }
+
+    // Check: The recorded cashier still exists and still lists the ticket (a cashier removed and
+    // re-added under the same ID starts with none).
+    private boolean isCashierMember(Ticket<?> ticket) {
+        Cashier cashier = findCashierById(ticket.getCashierId());
+        return cashier != null && cashier.hasTicket(ticket.getId());
+    }
+
+    // Check: Live and archived tickets alike are owned through the cashier's ticket index.
+    private boolean ownsTicket(Cashier cashier, Ticket<?> ticket) {
+        return cashier.hasTicket(ticket.getId());
+    }
+
+    public long getJournalSequence() {
+        return journalSequence;
+    }
+
+    public void setJournalSequence(long journalSequence) {
+        this.journalSequence = journalSequence;
     }
 
     public void addProduct(Product product) {
-        catalog.addProduct(product);
+        Lock exclusive = gate.writeLock();
+        exclusive.lock();
+        try {
+            catalog.addProduct(product);
+            if (journal != null) {
+                journal.productAdded(product);
+            }
+        } finally {
+            exclusive.unlock();
+        }
     }
 
     public void addClient(Client client) throws DuplicateEntryException {
-        // Check: Client ID must be unique.
-        clientRepository.add(client);
+        Lock exclusive = gate.writeLock();
+        exclusive.lock();
+        try {
+            // Check: Client ID must be unique.
+            clientRepository.add(client);
+            if (journal != null) {
+                journal.clientAdded(client);
+            }
+        } finally {
+            exclusive.unlock();
+        }
     }
 
     public Client findClientById(String id) {
@@ -40,25 +262,49 @@ public class Store implements java.io.Serializable {
     }
 
     public void removeClient(String id) {
-        clientRepository.remove(id);
+        Lock exclusive = gate.writeLock();
+        exclusive.lock();
+        try {
+            clientRepository.remove(id);
+            if (journal != null) {
+                journal.clientRemoved(id);
+            }
+        } finally {
+            exclusive.unlock();
+        }
     }
 
     public void addCashier(Cashier cashier) throws DuplicateEntryException {
-        // Check: Cashier ID must be unique.
-        cashierRepository.add(cashier);
+        Lock exclusive = gate.writeLock();
+        exclusive.lock();
+        try {
+            // Check: Cashier ID must be unique.
+            cashierRepository.add(cashier);
+            if (journal != null) {
+                journal.cashierAdded(cashier);
+            }
+        } finally {
+            exclusive.unlock();
+        }
     }
 
     // Helper: Auto-generate ID if missing.
     public void addCashier(String id, String name, String email) throws UPMStoreDomainException {
-        String cashierId = id;
-        if (cashierId == null || cashierId.isEmpty()) {
-            cashierId = Cashier.generateCashierId(this.cashierRepository.getAll());
-        }
-        // Error: Convert duplicate ID to domain error.
+        Lock exclusive = gate.writeLock();
+        exclusive.lock();
         try {
-            addCashier(new Cashier(cashierId, name, email));
-        } catch (DuplicateEntryException e) {
-            throw new UPMStoreDomainException(e.getMessage());
+            String cashierId = id;
+            if (cashierId == null || cashierId.isEmpty()) {
+                cashierId = Cashier.generateCashierId(this.cashierRepository.getAll());
+            }
+            // Error: Convert duplicate ID to domain error.
+            try {
+                addCashier(new Cashier(cashierId, name, email));
+            } catch (DuplicateEntryException e) {
+                throw new UPMStoreDomainException(e.getMessage());
+            }
+        } finally {
+            exclusive.unlock();
         }
     }
 
@@ -67,18 +313,54 @@ public class Store implements java.io.Serializable {
     }
 
     public void removeCashier(String id) {
-        Cashier cashierToRemove = findCashierById(id);
-        if (cashierToRemove != null) {
-            // Remove tickets associated with the cashier.
-            List<Ticket<?>> ticketsToRemove = cashierToRemove.getTickets();
-            for(Ticket<?> ticket : ticketsToRemove) {
-                ticketRepository.remove(ticket);
+        Lock exclusive = gate.writeLock();
+        exclusive.lock();
+        try {
+            Cashier cashierToRemove = findCashierById(id);
+            if (cashierToRemove != null) {
+                loadTickets();
+                // Remove tickets associated with the cashier.
+                List<Ticket<?>> ticketsToRemove = cashierToRemove.getTickets();
+                for(Ticket<?> ticket : ticketsToRemove) {
+                    ticketRepository.remove(ticket);
+                    ticket.detachProducts();
+                }
+                this.cashierRepository.remove(id);
+                if (journal != null) {
+                    journal.cashierRemoved(id);
+                }
             }
-            this.cashierRepository.remove(id);
+        } finally {
+            exclusive.unlock();
         }
     }
 
     public Ticket<?> createTicket(String id, String cashierId, String userId, TicketPrintType printType) throws UPMStoreDomainException {
+        TicketCreateEvent event = new TicketCreateEvent();
+        event.begin();
+        Lock shared = gate.readLock();
+        shared.lock();
+        try {
+            Ticket<?> ticket = createTicketShared(id, cashierId, userId, printType);
+            if (event.shouldCommit()) {
+                event.ticketId = ticket.getId();
+                event.cashierId = cashierId;
+                event.clientId = userId;
+                event.printType = printType.name();
+                event.commit();
+            }
+            return ticket;
+        } finally {
+            shared.unlock();
+        }
+    }
+
+    private Ticket<?> createTicketShared(String id, String cashierId, String userId, TicketPrintType printType) throws UPMStoreDomainException {
+        loadTickets();
+        // Validation: Archived IDs stay taken, even those of removed cashiers.
+        if (id != null && archive != null && archive.contains(id)) {
+            throw new DuplicateEntryException("Ticket with ID " + id + " already exists.");
+        }
         Cashier cashier = findCashierById(cashierId);
         // Validation: Cashier must exist.
         if (cashier == null) {
@@ -101,16 +383,41 @@ public class Store implements java.io.Serializable {
         newTicket.setPrintStrategy(strategy);
         
         // Logic: Register ticket in repositories.
+        newTicket.setOwners(cashier.getId(), client.getId());
         ticketRepository.add(newTicket);
         cashier.addTicket(newTicket);
         client.addTicket(newTicket);
+        if (journal != null) {
+            journal.ticketCreated(newTicket.getId(), cashier.getId(), client.getId(), printType);
+        }
 
         return newTicket;
     }
 
-    @SuppressWarnings({ "rawtypes", "unchecked" })
     public void addProductToTicket(String ticketId, String cashierId, String prodId, int amount,
             List<String> customTexts) throws UPMStoreDomainException {
+        TicketAddEvent event = new TicketAddEvent();
+        event.begin();
+        Lock shared = gate.readLock();
+        shared.lock();
+        try {
+            int lineCount = addProductToTicketShared(ticketId, cashierId, prodId, amount, customTexts);
+            if (event.shouldCommit()) {
+                event.ticketId = ticketId;
+                event.cashierId = cashierId;
+                event.productId = prodId;
+                event.amount = amount;
+                event.lineCount = lineCount;
+                event.commit();
+            }
+        } finally {
+            shared.unlock();
+        }
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private int addProductToTicketShared(String ticketId, String cashierId, String prodId, int amount,
+            List<String> customTexts) throws UPMStoreDomainException {
         Ticket<?> ticket = getTicket(ticketId);
         if (ticket == null) {
             throw new ResourceNotFoundException("Ticket with ID " + ticketId + " not found.");
@@ -118,7 +425,7 @@ public class Store implements java.io.Serializable {
 
         Cashier cashier = findCashierById(cashierId);
         // Security: Only owner can modify ticket.
-        if (cashier == null || !cashier.hasTicket(ticketId)) {
+        if (cashier == null || !ownsTicket(cashier, ticket)) {
             throw new UnauthorizedAccessException("Cashier " + cashierId + " does not own ticket " + ticketId);
         }
         
@@ -132,10 +439,29 @@ public class Store implements java.io.Serializable {
 
         // Unchecked cast is safe because validation passed.
         Ticket t = ticket;
-        t.addProduct(product, amount, customTexts);
+        Lock ticketLock = lockTicket(ticket, ticketId);
+        try {
+            t.addProduct(product, amount, customTexts);
+            if (journal != null) {
+                journal.ticketLineAdded(ticketId, cashierId, prodId, amount, customTexts);
+            }
+            return ticket.getLines().size();
+        } finally {
+            ticketLock.unlock();
+        }
     }
 
     public void removeProductFromTicket(String ticketId, String cashierId, String prodId) throws UPMStoreDomainException {
+        Lock shared = gate.readLock();
+        shared.lock();
+        try {
+            removeProductFromTicketShared(ticketId, cashierId, prodId);
+        } finally {
+            shared.unlock();
+        }
+    }
+
+    private void removeProductFromTicketShared(String ticketId, String cashierId, String prodId) throws UPMStoreDomainException {
         Ticket<?> ticket = getTicket(ticketId);
         if (ticket == null) {
             throw new ResourceNotFoundException("Ticket with ID " + ticketId + " not found.");
@@ -144,15 +470,97 @@ public class Store implements java.io.Serializable {
         Cashier cashier = findCashierById(cashierId);
         
         // Security: Only owner can remove items.
-        if (cashier == null || !cashier.hasTicket(ticketId)) {
+        if (cashier == null || !ownsTicket(cashier, ticket)) {
             throw new UnauthorizedAccessException("Cashier " + cashierId + " does not own ticket " + ticketId);
         }
-        if (!ticket.removeProduct(prodId)) {
-            throw new ResourceNotFoundException("Product with ID " + prodId + " not found in ticket " + ticketId);
+        Lock ticketLock = lockTicket(ticket, ticketId);
+        try {
+            if (!ticket.removeProduct(prodId)) {
+                throw new ResourceNotFoundException("Product with ID " + prodId + " not found in ticket " + ticketId);
+            }
+            if (journal != null) {
+                journal.ticketLineRemoved(ticketId, cashierId, prodId);
+            }
+        } finally {
+            ticketLock.unlock();
         }
     }
 
     public String printTicket(String ticketId, String cashierId) throws UPMStoreDomainException {
+        StringBuilder receipt = new StringBuilder();
+        try {
+            printTicket(ticketId, cashierId, receipt);
+        } catch (IOException e) {
+            // StringBuilder never throws; kept for the Appendable contract.
+            throw new UncheckedIOException(e);
+        }
+        return receipt.toString();
+    }
+
+    // Streaming: Write the receipt straight to the given Writer/stream.
+    public void printTicket(String ticketId, String cashierId, Appendable out) throws UPMStoreDomainException, IOException {
+        TicketPrintEvent event = new TicketPrintEvent();
+        event.begin();
+        // Monitoring: Receipt size is only counted while the event is recorded.
+        CountingAppendable counted = event.isEnabled() ? new CountingAppendable(out) : null;
+        Appendable target = counted != null ? counted : out;
+        Lock shared = gate.readLock();
+        shared.lock();
+        try {
+            Ticket<?> ticket = getPrintableTicket(ticketId, cashierId);
+            boolean reprint = ticket.getState() == TicketState.CLOSED;
+            // Concurrency: Reprints lock too, since a product edit makes the next one rebuild the totals.
+            Lock ticketLock = lockTicket(ticket, ticketId);
+            try {
+                if (reprint) {
+                    // Logic: Closed tickets (live or archived) are reprinted as they are, never re-closed.
+                    ticket.render(target);
+                } else {
+                    ticket.print(target);
+                    journalPrint(ticketId, cashierId, ticket);
+                }
+            } finally {
+                ticketLock.unlock();
+            }
+            if (counted != null && event.shouldCommit()) {
+                event.ticketId = ticket.getId();
+                event.cashierId = cashierId;
+                event.lineCount = ticket.getLines().size();
+                event.receiptSize = counted.getCount();
+                event.reprint = reprint;
+                event.commit();
+            }
+        } finally {
+            shared.unlock();
+        }
+    }
+
+    // Persistence: Replay a journaled print under its recorded final ID, without re-rendering it.
+    public void closeTicket(String ticketId, String cashierId, String finalId) throws UPMStoreDomainException {
+        Lock shared = gate.readLock();
+        shared.lock();
+        try {
+            Ticket<?> ticket = getPrintableTicket(ticketId, cashierId);
+            Lock ticketLock = lockTicket(ticket, ticketId);
+            try {
+                ticket.closeAs(finalId);
+                journalPrint(ticketId, cashierId, ticket);
+            } finally {
+                ticketLock.unlock();
+            }
+        } finally {
+            shared.unlock();
+        }
+    }
+
+    private void journalPrint(String ticketId, String cashierId, Ticket<?> ticket) {
+        // Check: Without a print strategy the ticket is not closed, so nothing changed.
+        if (journal != null && !ticketId.equals(ticket.getId())) {
+            journal.ticketPrinted(ticketId, cashierId, ticket.getId());
+        }
+    }
+
+    private Ticket<?> getPrintableTicket(String ticketId, String cashierId) throws UPMStoreDomainException {
         Ticket<?> ticket = getTicket(ticketId);
         if (ticket == null) {
             throw new ResourceNotFoundException("Ticket with ID " + ticketId + " not found.");
@@ -160,15 +568,19 @@ public class Store implements java.io.Serializable {
         
         Cashier cashier = findCashierById(cashierId);
         // Security: Only owner can print.
-        if (cashier == null || !cashier.hasTicket(ticketId)) {
+        if (cashier == null || !ownsTicket(cashier, ticket)) {
             throw new UnauthorizedAccessException("Cashier " + cashierId + " does not own ticket " + ticketId);
         }
-        
-        return ticket.print();
+        return ticket;
     }
 
     // Search: Find Client by Ticket.
     public String findClientIdByTicket(Ticket<?> ticket) {
+        // Fast path: Owner recorded on the ticket, if it still owns it.
+        if (ticket.getClientId() != null) {
+            Client owner = findClientById(ticket.getClientId());
+            return (owner != null && owner.hasTicket(ticket.getId())) ? owner.getId() : "Unknown";
+        }
         for (Client client : clientRepository.getAll()) {
             if (client.hasTicket(ticket.getId())) {
                 return client.getId();
@@ -179,6 +591,11 @@ public class Store implements java.io.Serializable {
 
     // Search: Find Cashier by Ticket.
     public String findCashierIdByTicket(Ticket<?> ticket) {
+        // Fast path: Owner recorded on the ticket, if it still owns it.
+        if (ticket.getCashierId() != null) {
+            Cashier owner = findCashierById(ticket.getCashierId());
+            return (owner != null && owner.hasTicket(ticket.getId())) ? owner.getId() : "Unknown";
+        }
         for (Cashier cashier : cashierRepository.getAll()) {
             if (cashier.hasTicket(ticket.getId())) {
                 return cashier.getId();
@@ -188,23 +605,68 @@ public class Store implements java.io.Serializable {
     }
 
     public Ticket<?> getTicket(String ticketId) {
-        return ticketRepository.findById(ticketId);
+        loadTickets();
+        Ticket<?> ticket = ticketRepository.findById(ticketId);
+        return (ticket != null) ? ticket : findArchived(ticketId);
     }
 
     @SuppressWarnings("Convert2Diamond")
     public List<Ticket<?>> getTickets() {
+        loadTickets();
         return ticketRepository.getAll();
     }
     
     // Search: Get tickets for cashier.
     public List<Ticket<?>> getTicketsByCashierId(String cashierId) {
+        loadTickets();
         Cashier cashier = findCashierById(cashierId);
         if(cashier != null) {
-            return cashier.getTickets();
+            List<Ticket<?>> tickets = cashier.getTickets();
+            tickets.addAll(findArchivedByCashier(cashier));
+            return tickets;
         }
         return new ArrayList<>();
     }
 
+    // Search: Live tickets plus archived ones whose cashier still owns them.
+    public List<Ticket<?>> getAllTickets() throws PersistenceException {
+        List<Ticket<?>> tickets = getTickets();
+        if (archive == null) {
+            return tickets;
+        }
+        try {
+            for (Ticket<?> ticket : archive.findAll()) {
+                if (isCashierMember(ticket)) {
+                    tickets.add(ticket);
+                }
+            }
+        } catch (IOException e) {
+            throw new PersistenceException("Error reading ticket archive: " + e.getMessage(), e);
+        }
+        return tickets;
+    }
+
+    // Search: What 'ticket list' shows. Archived rows come from the archive index, so the
+    // listing never reads archived tickets back.
+    public List<TicketSummary> listTickets() {
+        List<TicketSummary> summaries = new ArrayList<>();
+        for (Ticket<?> ticket : getTickets()) {
+            summaries.add(new TicketSummary(ticket.getId(), findCashierIdByTicket(ticket),
+                    findClientIdByTicket(ticket), ticket.getState()));
+        }
+        if (archive != null) {
+            archive.forEachEntry((ticketId, cashierId, clientId) -> {
+                Cashier cashier = findCashierById(cashierId);
+                if (cashier != null && cashier.hasTicket(ticketId)) {
+                    Client client = findClientById(clientId);
+                    String ownerId = (client != null && client.hasTicket(ticketId)) ? clientId : "Unknown";
+                    summaries.add(new TicketSummary(ticketId, cashierId, ownerId, TicketState.CLOSED));
+                }
+            });
+        }
+        return summaries;
+    }
+
     public void refreshCounters() {
         int maxProdId = 0;
         int maxServiceId = 0;
@@ -241,12 +703,47 @@ public class Store implements java.io.Serializable {
         return catalog.getProducts();
     }
 
+    // Query: Filtered listing through the catalog indexes (null = any filter).
+    public List<Product> findProducts(ProductCategory category, ProductKind kind,
+            java.time.LocalDateTime from, java.time.LocalDateTime to) {
+        return catalog.findProducts(category, kind, from, to);
+    }
+
     public void updateProduct(String productId, String field, String updateValue) throws InvalidProductDataException {
-        catalog.updateProduct(productId, field, updateValue);
+        ProductUpdateEvent event = new ProductUpdateEvent();
+        event.begin();
+        Lock exclusive = gate.writeLock();
+        exclusive.lock();
+        try {
+            // Check: Saved tickets must see the product as it was before the edit.
+            loadTickets();
+            catalog.updateProduct(productId, field, updateValue);
+            if (journal != null) {
+                journal.productUpdated(productId, field, updateValue);
+            }
+            if (event.shouldCommit()) {
+                event.productId = productId;
+                event.field = field;
+                event.commit();
+            }
+        } finally {
+            exclusive.unlock();
+        }
     }
 
     public Product removeProduct(String id) {
-        return catalog.removeProduct(id);
+        Lock exclusive = gate.writeLock();
+        exclusive.lock();
+        try {
+            loadTickets();
+            Product removed = catalog.removeProduct(id);
+            if (removed != null && journal != null) {
+                journal.productRemoved(id);
+            }
+            return removed;
+        } finally {
+            exclusive.unlock();
+        }
     }
 
     public Product getProduct(String id) {
@@ -0,0 +1,26 @@
+package es.upm.etsisi.poo.application;
+
+import java.util.List;
+
+import es.upm.etsisi.poo.domain.user.Client;
+import es.upm.etsisi.poo.domain.user.Cashier;
+import es.upm.etsisi.poo.domain.product.Product;
+import es.upm.etsisi.poo.domain.ticket.TicketPrintType;
+
+// [Interface] Receives every successful Store mutation, with generated IDs already resolved.
+// Implementations must make the record durable before returning.
+public interface StoreJournal {
+    void productAdded(Product product);
+    void productUpdated(String productId, String field, String value);
+    void productRemoved(String productId);
+
+    void clientAdded(Client client);
+    void clientRemoved(String clientId);
+    void cashierAdded(Cashier cashier);
+    void cashierRemoved(String cashierId);
+
+    void ticketCreated(String ticketId, String cashierId, String clientId, TicketPrintType printType);
+    void ticketLineAdded(String ticketId, String cashierId, String productId, int amount, List<String> customTexts);
+    void ticketLineRemoved(String ticketId, String cashierId, String productId);
+    void ticketPrinted(String ticketId, String cashierId, String finalId);
+}
@@ -0,0 +1,23 @@
+package es.upm.etsisi.poo.application;
+
+import java.util.List;
+import java.io.IOException;
+
+import es.upm.etsisi.poo.domain.ticket.Ticket;
+
+// [Interface] Cold storage for CLOSED tickets moved out of memory.
+// Tickets read back are read-only copies; they are not held by any repository.
+public interface TicketArchive {
+    void archive(List<Ticket<?>> closedTickets) throws IOException;
+    boolean contains(String ticketId);
+    Ticket<?> find(String ticketId) throws IOException;
+    List<Ticket<?>> findByCashier(String cashierId) throws IOException;
+    List<Ticket<?>> findAll() throws IOException;
+    // Listing: Index entries only (ID and recorded owners), in archive order; no ticket is read.
+    void forEachEntry(EntryVisitor visitor);
+
+    @FunctionalInterface
+    interface EntryVisitor {
+        void visit(String ticketId, String cashierId, String clientId);
+    }
+}
@@ -0,0 +1,9 @@
+package es.upm.etsisi.poo.application;
+
+import java.io.IOException;
+
+// [Interface] Deferred source for tickets not yet read from a snapshot.
+@FunctionalInterface
+public interface TicketLoader {
+    void loadTickets() throws IOException;
+}
@@ -0,0 +1,187 @@
+package es.upm.etsisi.poo.application;
+
+import java.util.Set;
+import java.net.Socket;
+import java.io.PrintStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.io.BufferedOutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.Executors;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import es.upm.etsisi.poo.infrastructure.persistence.FilePersistenceHandler;
+
+// [Class] TCP front end: every connection is a till on its own virtual thread, with its own
+// CommandHandler and buffered socket output, all sharing one Store.
+// Protocol: The console one, line by line: greeting, then 'tUPM> ' before each command; 'exit'
+// closes the connection only.
+// Limits: At most maxSessions tills at once (further connections are told so and closed); a till
+// idle for idleSeconds is disconnected (0 = never).
+public class TillServer {
+    public static final int DEFAULT_PORT = 7070;
+    public static final int DEFAULT_MAX_SESSIONS = 10_000;
+    public static final int DEFAULT_DRAIN_SECONDS = 30;
+    private static final int ACCEPT_BACKLOG = 1024;
+    private static final int SOCKET_BUFFER_SIZE = 8 * 1024;
+
+    private final Store store;
+    private final FilePersistenceHandler persistence;
+    private final int maxSessions;
+    private final int idleSeconds;
+    private final int drainSeconds;
+    private final Semaphore permits;
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean stopping = new AtomicBoolean();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private Thread acceptor;
+    private long accepted;                                   // Acceptor thread only.
+
+    public TillServer(Store store, FilePersistenceHandler persistence, int port,
+            int maxSessions, int idleSeconds, int drainSeconds) throws IOException {
+        if (maxSessions <= 0 || idleSeconds < 0 || drainSeconds < 0) {
+            throw new IllegalArgumentException("Error: Invalid till server limits.");
+        }
+        this.store = store;
+        this.persistence = persistence;
+        this.maxSessions = maxSessions;
+        this.idleSeconds = idleSeconds;
+        this.drainSeconds = drainSeconds;
+        this.permits = new Semaphore(maxSessions);
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.setReuseAddress(true);
+        this.serverSocket.bind(new InetSocketAddress(port), ACCEPT_BACKLOG);
+        // Concurrency: One virtual thread per till; blocking socket reads park it, not a carrier.
+        this.sessions = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("till-", 1).factory());
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getActiveSessions() {
+        return maxSessions - permits.availablePermits();
+    }
+
+    public void start() {
+        // Lazy: Materialize deferred tickets once, before any till looks them up.
+        store.loadTickets();
+        acceptor = new Thread(this::acceptLoop, "till-acceptor");
+        acceptor.start();
+    }
+
+    private void acceptLoop() {
+        while (!stopping.get()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (!stopping.get()) {
+                    System.err.println("Warning: Till server stopped accepting (" + e.getMessage() + ").");
+                }
+                return;
+            }
+            if (!permits.tryAcquire()) {
+                reject(socket);
+                continue;
+            }
+            long number = ++accepted;
+            connections.add(socket);
+            try {
+                sessions.execute(() -> serve(socket, number));
+            } catch (RuntimeException e) {
+                // Check: Lost the race with stop(); the connection never became a till.
+                connections.remove(socket);
+                permits.release();
+                closeQuietly(socket);
+            }
+        }
+    }
+
+    private void serve(Socket socket, long number) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(idleSeconds));
+            BufferedReader input = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8), SOCKET_BUFFER_SIZE);
+            PrintStream output = new PrintStream(
+                    new BufferedOutputStream(socket.getOutputStream(), SOCKET_BUFFER_SIZE), false, StandardCharsets.UTF_8);
+            output.println("Welcome to the ticket module App.");
+            output.println("Ticket module. Type 'help' to see commands.");
+            new TillSession("#" + number, store, persistence, input, output, false, true).run();
+        } catch (IOException e) {
+            // Logic: The client went away; nothing left to answer.
+        } finally {
+            connections.remove(socket);
+            permits.release();
+        }
+    }
+
+    private void reject(Socket socket) {
+        try (socket) {
+            PrintStream output = new PrintStream(socket.getOutputStream(), false, StandardCharsets.UTF_8);
+            output.println("Error: Till server is full (" + maxSessions + " sessions). Try again later.");
+            output.flush();
+        } catch (IOException e) {
+            // Logic: Nothing to tell a client that is already gone.
+        }
+    }
+
+    // Shutdown: Stop accepting and stop reading; every till finishes the command it is running and
+    // the lines it already received. Tills still busy after the drain timeout are cut off.
+    // Returns false if the server was already stopped. Saving is left to the caller.
+    public boolean stop() {
+        if (!stopping.compareAndSet(false, true)) {
+            return false;
+        }
+        closeQuietly(serverSocket);
+        try {
+            if (acceptor != null) {
+                acceptor.join();
+            }
+            sessions.shutdown();
+            for (Socket socket : connections) {
+                try {
+                    socket.shutdownInput();
+                } catch (IOException e) {
+                    closeQuietly(socket);
+                }
+            }
+            if (!sessions.awaitTermination(drainSeconds, TimeUnit.SECONDS)) {
+                System.err.println("Warning: " + getActiveSessions() + " tills did not drain in time; disconnecting.");
+                for (Socket socket : connections) {
+                    closeQuietly(socket);
+                }
+                sessions.shutdownNow();
+                sessions.awaitTermination(drainSeconds, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopped.countDown();
+        }
+        return true;
+    }
+
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        try {
+            resource.close();
+        } catch (Exception e) {
+            // Logic: Closing during shutdown; the resource is unusable either way.
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package es.upm.etsisi.poo.application;
+
+import java.io.PrintStream;
+import java.io.IOException;
+import java.io.BufferedReader;
+
+import es.upm.etsisi.poo.ui.CommandHandler;
+import es.upm.etsisi.poo.domain.exceptions.UPMStoreDomainException;
+import es.upm.etsisi.poo.infrastructure.persistence.FilePersistenceHandler;
+
+// [Class] One till: its own CommandHandler and output, sharing the Store with every other till.
+// 'exit' closes this till only; saving the store is left to whoever owns it.
+// Mode: With a prompt, 'tUPM> ' is written and the output flushed before every read, so a
+// remote till sees each response as soon as its command completes.
+public class TillSession implements Runnable {
+    private static final String PROMPT = "tUPM> ";
+
+    private final String name;
+    private final Store store;
+    private final FilePersistenceHandler persistence;
+    private final BufferedReader input;
+    private final PrintStream output;
+    private final boolean echo;
+    private final boolean prompt;
+
+    public TillSession(String name, Store store, FilePersistenceHandler persistence,
+            BufferedReader input, PrintStream output, boolean echo) {
+        this(name, store, persistence, input, output, echo, false);
+    }
+
+    public TillSession(String name, Store store, FilePersistenceHandler persistence,
+            BufferedReader input, PrintStream output, boolean echo, boolean prompt) {
+        this.name = name;
+        this.store = store;
+        this.persistence = persistence;
+        this.input = input;
+        this.output = output;
+        this.echo = echo;
+        this.prompt = prompt;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void run() {
+        CommandHandler handler = new CommandHandler(store, output);
+        try {
+            while (true) {
+                if (prompt) {
+                    output.print(PROMPT);
+                    output.flush();
+                }
+                String line = input.readLine();
+                if (line == null) {
+                    break;
+                }
+                String inputLine = line.trim();
+                if (echo) {
+                    output.println(PROMPT + inputLine);
+                }
+                if (inputLine.equalsIgnoreCase("exit")) {
+                    output.println("Till " + name + " closed.");
+                    break;
+                }
+                if (inputLine.isEmpty()) {
+                    continue;
+                }
+                try {
+                    handler.handle(inputLine);
+                    persistence.checkpointIfDue(store);
+                } catch (UPMStoreDomainException e) {
+                    output.println("Error: " + e.getMessage());
+                } catch (RuntimeException e) {
+                    // Error: A bug in one command must not take the till (or the store) down.
+                    output.println("Unexpected Error: " + e);
+                }
+            }
+        } catch (IOException e) {
+            output.println("Error: Till " + name + " input failed (" + e.getMessage() + ").");
+        } finally {
+            output.flush();
+        }
+    }
+}
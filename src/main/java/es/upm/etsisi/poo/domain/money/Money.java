@@ -0,0 +1,103 @@
+package es.upm.etsisi.poo.domain.money;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// [Value Object] Exact money amount stored as long cents (minor units).
+public final class Money implements Serializable, Comparable<Money> {
+    public static final Money ZERO = new Money(0L);
+    public static final int BASIS_POINTS = 10000;      // 100% expressed in basis points
+    private static final int SCALE = 2;                 // Two decimals (cents)
+    private static final long CENTS_PER_UNIT = 100L;
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0L ? ZERO : new Money(cents);
+    }
+
+    // Parse: Decimal text (e.g. "12.5") rounded half-up to cents, no double involved.
+    public static Money parse(String amount) throws NumberFormatException {
+        try {
+            BigDecimal value = new BigDecimal(amount.trim()).setScale(SCALE, RoundingMode.HALF_UP);
+            return ofCents(value.unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + amount);
+        }
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public double toDouble() {
+        return (double) cents / CENTS_PER_UNIT;
+    }
+
+    public boolean isNegative() {
+        return cents < 0L;
+    }
+
+    public boolean isPositive() {
+        return cents > 0L;
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money times(int quantity) {
+        return ofCents(Math.multiplyExact(cents, quantity));
+    }
+
+    // Raw cents arithmetic: Allocation-free helpers for accumulators.
+    public static long percentage(long cents, int basisPoints) {
+        // Rounding: Half-up to the nearest cent.
+        return Math.floorDiv(Math.multiplyExact(cents, basisPoints) + BASIS_POINTS / 2, BASIS_POINTS);
+    }
+
+    public static String format(long cents) {
+        StringBuilder sb = new StringBuilder(16);
+        long abs = Math.abs(cents);
+        if (cents < 0L) {
+            sb.append('-');
+        }
+        long fraction = abs % CENTS_PER_UNIT;
+        sb.append(abs / CENTS_PER_UNIT).append('.');
+        if (fraction < 10L) {
+            sb.append('0');
+        }
+        return sb.append(fraction).toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money other)) return false;
+        return cents == other.cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public String toString() {
+        return format(cents);
+    }
+}
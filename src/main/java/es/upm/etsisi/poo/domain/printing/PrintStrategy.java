@@ -1,9 +1,24 @@
 package es.upm.etsisi.poo.domain.printing;
 
 import java.io.Serializable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 import es.upm.etsisi.poo.domain.ticket.Ticket;
 
 // [Interface] Defines how to print a ticket.
 public interface PrintStrategy extends Serializable {
-    String formatTicket(Ticket<?> ticket);
-}
\ No newline at end of file
+    // Render: Write the receipt into a caller-supplied buffer or stream.
+    void formatTicket(Ticket<?> ticket, Appendable out) throws IOException;
+
+    default String formatTicket(Ticket<?> ticket) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            formatTicket(ticket, sb);
+        } catch (IOException e) {
+            // StringBuilder never throws; kept for the Appendable contract.
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+}
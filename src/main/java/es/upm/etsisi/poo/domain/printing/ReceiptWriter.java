@@ -0,0 +1,68 @@
+package es.upm.etsisi.poo.domain.printing;
+
+import java.io.IOException;
+
+import es.upm.etsisi.poo.domain.money.Money;
+
+// [Class] Allocation-light receipt output over any Appendable (StringBuilder, CharBuffer, Writer...).
+public final class ReceiptWriter {
+    private static final int MAX_LONG_DIGITS = 20;
+    private static final long CENTS_PER_UNIT = 100L;
+
+    private final Appendable out;
+    private final char[] digits = new char[MAX_LONG_DIGITS];    // Scratch for number formatting
+
+    public ReceiptWriter(Appendable out) {
+        this.out = out;
+    }
+
+    public ReceiptWriter append(CharSequence text) throws IOException {
+        out.append(text);
+        return this;
+    }
+
+    public ReceiptWriter append(char c) throws IOException {
+        out.append(c);
+        return this;
+    }
+
+    public ReceiptWriter newLine() throws IOException {
+        out.append('\n');
+        return this;
+    }
+
+    public ReceiptWriter appendLong(long value) throws IOException {
+        if (value < 0L) {
+            out.append('-');
+        }
+        // Logic: Digits are written backwards into the scratch buffer (no String.valueOf).
+        int pos = MAX_LONG_DIGITS;
+        long rest = value;
+        do {
+            digits[--pos] = (char) ('0' + Math.abs(rest % 10L));
+            rest /= 10L;
+        } while (rest != 0L);
+        for (int i = pos; i < MAX_LONG_DIGITS; i++) {
+            out.append(digits[i]);
+        }
+        return this;
+    }
+
+    // Format: Hand-rolled two-decimal output of an amount in cents (no Formatter).
+    public ReceiptWriter appendMoney(long cents) throws IOException {
+        if (cents < 0L) {
+            out.append('-');
+        }
+        long units = Math.abs(cents / CENTS_PER_UNIT);
+        int fraction = (int) Math.abs(cents % CENTS_PER_UNIT);
+        appendLong(units);
+        out.append('.');
+        out.append((char) ('0' + fraction / 10));
+        out.append((char) ('0' + fraction % 10));
+        return this;
+    }
+
+    public ReceiptWriter appendMoney(Money amount) throws IOException {
+        return appendMoney(amount.getCents());
+    }
+}
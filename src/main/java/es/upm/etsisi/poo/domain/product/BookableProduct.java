@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Collections;
 import java.time.LocalDateTime;
 
+import es.upm.etsisi.poo.domain.money.Money;
 import es.upm.etsisi.poo.domain.exceptions.InvalidProductDataException;
 
 // [Class] Product type: Bookable.
@@ -11,14 +12,14 @@ public abstract class BookableProduct extends Product {
     private final int maxParticipants;
     private final LocalDateTime expirationDate;
 
-    public BookableProduct(String name, double price, LocalDateTime expirationDate, int maxParticipants) throws InvalidProductDataException {
+    public BookableProduct(String name, Money price, LocalDateTime expirationDate, int maxParticipants) throws InvalidProductDataException {
         // E2 Requirement: These products do not have a category, so we pass null.
         super(name, null, price);
         this.expirationDate = expirationDate;
         this.maxParticipants = maxParticipants;
     }
 
-    public BookableProduct(String id, String name, double price, LocalDateTime expirationDate, int maxParticipants) throws InvalidProductDataException {
+    public BookableProduct(String id, String name, Money price, LocalDateTime expirationDate, int maxParticipants) throws InvalidProductDataException {
         // E2 Requirement: These products do not have a category, so we pass null.
         super(id, name, null, price);
         this.expirationDate = expirationDate;
@@ -45,8 +46,8 @@ public abstract class BookableProduct extends Product {
     }
 
     @Override
-    public double getLineTotal(int quantity, List<String> customTexts) {
-        return getPrice() * quantity;
+    public long getLineTotalCents(int quantity, List<String> customTexts) {
+        return Math.multiplyExact(getPrice().getCents(), quantity);
     }
 
     @Override
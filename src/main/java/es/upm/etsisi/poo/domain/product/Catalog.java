@@ -1,37 +1,85 @@
 package es.upm.etsisi.poo.domain.product;
 
+import java.util.Map;
 import java.util.List;
+import java.util.EnumMap;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
+import es.upm.etsisi.poo.domain.money.Money;
+import es.upm.etsisi.poo.domain.exceptions.DuplicateEntryException;
 import es.upm.etsisi.poo.domain.exceptions.InvalidProductDataException;
 
 // [Class] Manages the list of Products.
+// Concurrency: Reads never lock, so checkouts are not held up by the catalog; changes are synchronized.
 public class Catalog implements java.io.Serializable {
-    private final List<Product> products;
-    private static final int MAX_PRODUCTS = 200;    // E1 requirement: max products cannot exceed 200
+    // Index: ID -> Product.
+    private final Map<String, Product> products;
+    // Order: Insertion order for 'prod list' (arrival position -> Product); O(log n) add and removal.
+    private final ConcurrentSkipListMap<Long, Product> ordered;
+    // Index: Secondary indexes for filtered listings, kept by every change below.
+    // Category and kind buckets are keyed by insertion position, so they list in catalog order;
+    // the EnumMaps are filled once and only their (concurrent) buckets change afterwards.
+    private final Map<String, Long> positions;
+    private final EnumMap<ProductCategory, ConcurrentSkipListMap<Long, Product>> byCategory;
+    private final EnumMap<ProductKind, ConcurrentSkipListMap<Long, Product>> byKind;
+    private final ConcurrentSkipListMap<ExpirationKey, Product> byExpiration;
+    private long nextPosition;
+    private final int maxProducts;
+    public static final int DEFAULT_MAX_PRODUCTS = 200;    // E1 requirement: max products cannot exceed 200
 
 
-    @SuppressWarnings("Convert2Diamond")
     public Catalog() {
-        this.products = new ArrayList<Product>();
+        this(DEFAULT_MAX_PRODUCTS);
     }
 
-    public void addProduct(Product prod) throws IllegalArgumentException {
-        if (products.size() >= MAX_PRODUCTS) {
+    public Catalog(int maxProducts) {
+        if (maxProducts <= 0) {
+            throw new IllegalArgumentException("Error: Maximum number of products must be greater than 0.");
+        }
+        this.maxProducts = maxProducts;
+        this.products = new ConcurrentHashMap<>();
+        this.ordered = new ConcurrentSkipListMap<>();
+        this.positions = new ConcurrentHashMap<>();
+        this.byCategory = new EnumMap<>(ProductCategory.class);
+        for (ProductCategory category : ProductCategory.values()) {
+            byCategory.put(category, new ConcurrentSkipListMap<>());
+        }
+        this.byKind = new EnumMap<>(ProductKind.class);
+        for (ProductKind kind : ProductKind.values()) {
+            byKind.put(kind, new ConcurrentSkipListMap<>());
+        }
+        this.byExpiration = new ConcurrentSkipListMap<>();
+    }
+
+    public synchronized void addProduct(Product prod) throws IllegalArgumentException, DuplicateEntryException {
+        if (products.size() >= maxProducts) {
             throw new IllegalArgumentException("Error: Maximum number of products reached.");
         }
-        products.add(prod);
+        // Validation: Prevent duplicate IDs.
+        if (products.containsKey(prod.getId())) {
+            throw new DuplicateEntryException("Product with ID " + prod.getId() + " already exists.");
+        }
+        long position = nextPosition++;
+        products.put(prod.getId(), prod);
+        ordered.put(position, prod);
+        index(prod, position);
     }
 
-    public Product removeProduct(String id) {
-        Product productToRemove = getProduct(id);
-        if (productToRemove != null) {
-            products.remove(productToRemove);
+    public synchronized Product removeProduct(String id) {
+        Product removed = products.remove(id);
+        if (removed != null) {
+            long position = positions.get(id);
+            ordered.remove(position);
+            unindex(removed, position);
         }
-        return productToRemove;
+        return removed;
     }
 
-    public void updateProduct(String id, String field, String value) throws IllegalArgumentException, InvalidProductDataException {
+    public synchronized void updateProduct(String id, String field, String value) throws IllegalArgumentException, InvalidProductDataException {
         Product prod = getProduct(id);
         if (prod == null) {
             throw new IllegalArgumentException("Error: Product with ID " + id + " not found.");
@@ -40,16 +88,25 @@ public class Catalog implements java.io.Serializable {
         switch (field.toUpperCase()) {
             case "NAME" -> prod.setName(value);
             case "CATEGORY" -> {
+                ProductCategory newCategory;
                 try {
-                    ProductCategory newCategory = ProductCategory.valueOf(value.toUpperCase());
-                    prod.setCategory(newCategory);
+                    newCategory = ProductCategory.valueOf(value.toUpperCase());
                 } catch (IllegalArgumentException e) {
                     throw new IllegalArgumentException("Error: Invalid category");
                 }
+                // Index: Re-indexed under whatever category the product ends up with, even if a
+                // ticket listener fails while being notified.
+                long position = positions.get(id);
+                unindex(prod, position);
+                try {
+                    prod.setCategory(newCategory);
+                } finally {
+                    index(prod, position);
+                }
             }
             case "PRICE" -> {
                 try {
-                    double newPrice = Double.parseDouble(value);
+                    Money newPrice = Money.parse(value);
                     prod.setPrice(newPrice);
                 } catch (NumberFormatException e) {
                     throw new IllegalArgumentException("Error: Invalid price");
@@ -67,16 +124,101 @@ public class Catalog implements java.io.Serializable {
         return products.size();
     }
 
+    public int getMaxProducts() {
+        return maxProducts;
+    }
+
     public Product getProduct(String id) {
-        for (Product product : products) {
-            if (product.getId().equals(id)) {
-                return product;
+        return products.get(id);
+    }
+
+    public List<Product> getProducts() {
+        return new ArrayList<>(ordered.values());
+    }
+
+    // Query: Products matching every given filter (null = any); 'from' is inclusive, 'to' exclusive.
+    // Cost: Walks one index (category, else kind, else the expiration range), not the catalog.
+    // Order: Catalog order, except date-only queries, which list by expiration date.
+    public List<Product> findProducts(ProductCategory category, ProductKind kind, LocalDateTime from, LocalDateTime to) {
+        Collection<Product> candidates;
+        if (category != null) {
+            candidates = byCategory.get(category).values();
+        } else if (kind != null) {
+            candidates = byKind.get(kind).values();
+        } else if (from != null || to != null) {
+            candidates = expiring(from, to).values();
+        } else {
+            return getProducts();
+        }
+        List<Product> found = new ArrayList<>();
+        for (Product prod : candidates) {
+            if ((kind == null || prod.getKind() == kind) && isExpiringIn(prod, from, to)) {
+                found.add(prod);
             }
         }
-        return null;
+        return found;
     }
 
-    public List<Product> getProducts() {
-    return new ArrayList<>(products);
+    private Map<ExpirationKey, Product> expiring(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null) {
+            if (!from.isBefore(to)) {
+                return Map.of();
+            }
+            return byExpiration.subMap(ExpirationKey.first(from), ExpirationKey.first(to));
+        }
+        return from != null ? byExpiration.tailMap(ExpirationKey.first(from)) : byExpiration.headMap(ExpirationKey.first(to));
+    }
+
+    private static boolean isExpiringIn(Product prod, LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return true;
+        }
+        LocalDateTime date = prod.getExpirationDate();
+        return date != null && (from == null || !date.isBefore(from)) && (to == null || date.isBefore(to));
+    }
+
+    // Index: Callers hold the catalog lock.
+    private void index(Product prod, long position) {
+        positions.put(prod.getId(), position);
+        if (prod.getCategory() != null) {
+            byCategory.get(prod.getCategory()).put(position, prod);
+        }
+        byKind.get(prod.getKind()).put(position, prod);
+        if (prod.getExpirationDate() != null) {
+            byExpiration.put(new ExpirationKey(prod.getExpirationDate(), position), prod);
+        }
+    }
+
+    private void unindex(Product prod, long position) {
+        positions.remove(prod.getId());
+        if (prod.getCategory() != null) {
+            byCategory.get(prod.getCategory()).remove(position);
+        }
+        byKind.get(prod.getKind()).remove(position);
+        if (prod.getExpirationDate() != null) {
+            byExpiration.remove(new ExpirationKey(prod.getExpirationDate(), position));
+        }
+    }
+
+    // [Class] Expiration index key: date, then insertion position (several products share a date).
+    private static final class ExpirationKey implements Comparable<ExpirationKey>, java.io.Serializable {
+        private final LocalDateTime date;
+        private final long position;
+
+        private ExpirationKey(LocalDateTime date, long position) {
+            this.date = date;
+            this.position = position;
+        }
+
+        // Bound: Sorts before every product expiring at 'date'.
+        private static ExpirationKey first(LocalDateTime date) {
+            return new ExpirationKey(date, Long.MIN_VALUE);
+        }
+
+        @Override
+        public int compareTo(ExpirationKey other) {
+            int byDate = date.compareTo(other.date);
+            return byDate != 0 ? byDate : Long.compare(position, other.position);
+        }
     }
-}
\ No newline at end of file
+}
@@ -3,23 +3,24 @@ package es.upm.etsisi.poo.domain.product;
 import java.util.List;
 import java.util.ArrayList;
 
+import es.upm.etsisi.poo.domain.money.Money;
 import es.upm.etsisi.poo.domain.exceptions.InvalidProductDataException;
 
 // [Class] Product subtype.
 public class CustomizableProduct extends Product {
     private final int maxCustomizableTexts;
     private final List<String> customTexts;
-    private static final double CUSTOM_SURCHARGE = 0.1;     //E2 Requirement: 10% surcharge per custom text
+    private static final int CUSTOM_SURCHARGE_BASIS_POINTS = 1000;     //E2 Requirement: 10% surcharge per custom text
 
     @SuppressWarnings("Convert2Diamond")
-    public CustomizableProduct(String name, ProductCategory category, double price, int maxCustomizableTexts) throws InvalidProductDataException {
+    public CustomizableProduct(String name, ProductCategory category, Money price, int maxCustomizableTexts) throws InvalidProductDataException {
         super(name, category, price);
         this.maxCustomizableTexts = maxCustomizableTexts;
         this.customTexts = new ArrayList<String>();
     }
 
     @SuppressWarnings("Convert2Diamond")
-    public CustomizableProduct(String id, String name, ProductCategory category, double price, int maxCustomizableTexts) throws InvalidProductDataException {
+    public CustomizableProduct(String id, String name, ProductCategory category, Money price, int maxCustomizableTexts) throws InvalidProductDataException {
         super(id, name, category, price);
         this.maxCustomizableTexts = maxCustomizableTexts;
         this.customTexts = new ArrayList<String>();
@@ -44,8 +45,9 @@ public class CustomizableProduct extends Product {
     }
 
     @Override
-    public double getLineTotal(int quantity, List<String> customTexts) {
-        return super.getPrice() * (1 + customTexts.size() * CUSTOM_SURCHARGE) * quantity;
+    public long getLineTotalCents(int quantity, List<String> customTexts) {
+        long baseCents = Math.multiplyExact(super.getPrice().getCents(), quantity);
+        return Money.percentage(baseCents, Money.BASIS_POINTS + customTexts.size() * CUSTOM_SURCHARGE_BASIS_POINTS);
     }
 
     @Override
@@ -53,6 +55,11 @@ public class CustomizableProduct extends Product {
         return false;
     }
 
+    @Override
+    public ProductKind getKind() {
+        return ProductKind.CUSTOMIZABLE;
+    }
+
     @Override
     public void validate() {
         // No specific validation for customizable products.
@@ -65,13 +72,13 @@ public class CustomizableProduct extends Product {
 
     @Override
     public String getPrintablePriceDetails() {
-        return String.format("Price: %.2f", getPrice());
+        return "Price: " + getPrice();
     }
 
     @Override
     public String toString() {
         // Returns a string representation of the CustomizableProduct, including id, name, category, price and custom texts, in that order.
         return String.format("{class: %s, id:%s, name:'%s', category:%s, price:%.1f, customTexts:%s}",
-                this.getClass().getSimpleName(), getId(), getName(), getCategory(), getPrice(), customTexts);
+                this.getClass().getSimpleName(), getId(), getName(), getCategory(), getPrice().toDouble(), customTexts);
     }
 }
\ No newline at end of file
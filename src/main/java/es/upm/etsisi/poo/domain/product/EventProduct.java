@@ -2,6 +2,7 @@ package es.upm.etsisi.poo.domain.product;
 
 import java.time.LocalDateTime;
 
+import es.upm.etsisi.poo.domain.money.Money;
 import es.upm.etsisi.poo.domain.exceptions.InvalidProductDataException;
 
 // [Class] Product type: Event.
@@ -10,14 +11,15 @@ public class EventProduct extends BookableProduct {
     private static final int MIN_MEETING_PLANNING_HOURS = 12;
 
     private final EventType type;
+    private transient String expirationDetails;
 
-    public EventProduct(String name, double price, LocalDateTime expirationDate, int maxParticipants, EventType type) throws InvalidProductDataException {
+    public EventProduct(String name, Money price, LocalDateTime expirationDate, int maxParticipants, EventType type) throws InvalidProductDataException {
         super(name, price, expirationDate, maxParticipants);
         this.type = type;
     }
 
     // Constructor that accepts ID
-    public EventProduct(String id, String name, double price, LocalDateTime expirationDate, int maxParticipants, EventType type) throws InvalidProductDataException {
+    public EventProduct(String id, String name, Money price, LocalDateTime expirationDate, int maxParticipants, EventType type) throws InvalidProductDataException {
         super(id, name, price, expirationDate, maxParticipants);
         this.type = type;
     }
@@ -53,6 +55,11 @@ public class EventProduct extends BookableProduct {
         return true;
     }
 
+    @Override
+    public ProductKind getKind() {
+        return ProductKind.EVENT;
+    }
+
     @Override
     public boolean isService() {
         return false;
@@ -60,17 +67,21 @@ public class EventProduct extends BookableProduct {
 
     @Override
     public String getExpirationDetails() {
-        return ", Date: " + this.getExpirationDate().toString();
+        // Cache: Date text is built once per product, not per printed line.
+        if (expirationDetails == null) {
+            expirationDetails = ", Date: " + this.getExpirationDate().toString();
+        }
+        return expirationDetails;
     }
 
     @Override
     public String getPrintablePriceDetails() {
-        return String.format("Price: %.2f", getPrice());
+        return "Price: " + getPrice();
     }
     
     @Override
     public String toString() {
         return String.format("{class: %s, id:%s, name:'%s', price:%.1f, type:%s, expiration:%s}",
-            getClass().getSimpleName(), getId(), getName(), getPrice(), type, getExpirationDate().toString());
+            getClass().getSimpleName(), getId(), getName(), getPrice().toDouble(), type, getExpirationDate().toString());
     }
 }
\ No newline at end of file
@@ -1,30 +1,35 @@
 package es.upm.etsisi.poo.domain.product;
 
+import java.util.Set;
+import java.io.IOException;
 import java.util.List;
 import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
 
+import es.upm.etsisi.poo.domain.money.Money;
+import es.upm.etsisi.poo.domain.printing.ReceiptWriter;
 import es.upm.etsisi.poo.domain.exceptions.InvalidProductDataException;
 
 // [Abstract Class] Base Product.
 public abstract class Product implements java.io.Serializable {
 
     private String name;
-    private double price;
+    private Money price;
     private final String id;
     private static int nextId = 1;
     private ProductCategory category;
     protected static int nextServiceId = 1;
-    protected static final double MIN_PRICE = -0.001;
     protected static final int MAX_NAME_LENGTH = 100;
+    private final Set<ProductChangeListener> changeListeners = ConcurrentHashMap.newKeySet();
 
-    protected Product(String name, ProductCategory category, double price) throws InvalidProductDataException {
+    protected Product(String name, ProductCategory category, Money price) throws InvalidProductDataException {
         this.id = String.valueOf(nextId++);
         this.name = name;
         this.category = category;
         this.price = price;
     }
 
-    protected Product(String id, String name, ProductCategory category, double price) throws InvalidProductDataException {
+    protected Product(String id, String name, ProductCategory category, Money price) throws InvalidProductDataException {
         this.id = id;
         this.name = name;
         this.category = category;
@@ -32,16 +37,15 @@ public abstract class Product implements java.io.Serializable {
         updateCounters(id);
     }
 
+    // Concurrency: Archived tickets are decoded by several tills at once; max-updates must not be lost.
     private void updateCounters(String id) {
         if (isService()) {
             try {
-                int val = Integer.parseInt(id.substring(0, id.length() - 1));
-                nextServiceId = Math.max(nextServiceId, val + 1);
+                updateNextServiceId(Integer.parseInt(id.substring(0, id.length() - 1)));
             } catch (NumberFormatException ignored) {}
         } else {
             try {
-                int val = Integer.parseInt(id);
-                nextId = Math.max(nextId, val + 1);
+                updateNextId(Integer.parseInt(id));
             } catch (NumberFormatException ignored) {}
         }
     }
@@ -58,7 +62,7 @@ public abstract class Product implements java.io.Serializable {
         return category;
     }
 
-    public double getPrice() {
+    public Money getPrice() {
         return price;
     }
 
@@ -72,31 +76,51 @@ public abstract class Product implements java.io.Serializable {
 
     public void setCategory(ProductCategory category) {
         this.category = category;
+        notifyChanged();
     }
 
-    public void setPrice(double price) throws InvalidProductDataException {
-        if (price <= MIN_PRICE) {
+    public void setPrice(Money price) throws InvalidProductDataException {
+        if (price.isNegative()) {
             throw new InvalidProductDataException("Error: Price must be greater than 0.");
         } else {
             this.price = price;
+            notifyChanged();
         }
     }
 
-    public static void updateNextId(int id) {
+    // Observer: Open tickets holding this product register here (closing a ticket unregisters it).
+    // Concurrency: Tickets of different cashiers register from different threads; an edit walks the
+    // set without a lock.
+    public void addChangeListener(ProductChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(ProductChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    private void notifyChanged() {
+        for (ProductChangeListener listener : changeListeners) {
+            listener.onProductChanged(this);
+        }
+    }
+
+    public static synchronized void updateNextId(int id) {
         nextId = Math.max(nextId, id + 1);
     }
 
-    public static void updateNextServiceId(int id) {
+    public static synchronized void updateNextServiceId(int id) {
         nextServiceId = Math.max(nextServiceId, id + 1);
     }
 
     public abstract void validate();
     public abstract boolean isBookable();
+    public abstract ProductKind getKind();
     public abstract List<String> getCustomTexts();
     public abstract String getPrintablePriceDetails();
     public abstract LocalDateTime getExpirationDate();
     public abstract void addCustomText(List<String> customTexts, String text);
-    public abstract double getLineTotal(int quantity, List<String> customTexts);
+    public abstract long getLineTotalCents(int quantity, List<String> customTexts);
     
     public boolean isService() {
         return false;
@@ -106,9 +130,18 @@ public abstract class Product implements java.io.Serializable {
         return ""; // Default for StandardProduct (returns empty string)
     }
 
+    // Render: Receipt details written straight into the output (no String.format).
+    public void writePrintablePriceDetails(ReceiptWriter out) throws IOException {
+        out.append("Price: ").appendMoney(price);
+    }
+
+    public void writeExpirationDetails(ReceiptWriter out) throws IOException {
+        out.append(getExpirationDetails());
+    }
+
     @Override
     public String toString() {
         return String.format("{class: %s, id:%s, name:'%s', category:%s, price:%.1f}",
-                this.getClass().getSimpleName(), id, name, category, price);
+                this.getClass().getSimpleName(), id, name, category, price.toDouble());
     }
 }
\ No newline at end of file
@@ -2,19 +2,19 @@ package es.upm.etsisi.poo.domain.product;
 
 // Represents product categories and their discount rates as required by E1.
 public enum ProductCategory {
-    MERCH(0.0),             // E1 Specified Discount: 0%
-    BOOK(0.10),             // E1 Specified Discount: 10%
-    CLOTHES(0.07),          // E1 Specified Discount: 7%
-    STATIONERY(0.05),       // E1 Specified Discount: 5%
-    ELECTRONICS(0.03);      // E1 Specified Discount: 3%
+    MERCH(0),               // E1 Specified Discount: 0%
+    BOOK(1000),             // E1 Specified Discount: 10%
+    CLOTHES(700),           // E1 Specified Discount: 7%
+    STATIONERY(500),        // E1 Specified Discount: 5%
+    ELECTRONICS(300);       // E1 Specified Discount: 3%
 
-    private final double discount;
+    private final int discountBasisPoints;     // 1 basis point = 0.01%
 
-    ProductCategory(double discount) {
-        this.discount = discount;
+    ProductCategory(int discountBasisPoints) {
+        this.discountBasisPoints = discountBasisPoints;
     }
 
-    public double getDiscount() {
-        return discount;
+    public int getDiscountBasisPoints() {
+        return discountBasisPoints;
     }
 }
\ No newline at end of file
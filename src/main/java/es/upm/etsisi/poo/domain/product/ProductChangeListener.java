@@ -0,0 +1,8 @@
+package es.upm.etsisi.poo.domain.product;
+
+import java.io.Serializable;
+
+// [Interface] Observer notified when a Product changes its price or category.
+public interface ProductChangeListener extends Serializable {
+    void onProductChanged(Product product);
+}
@@ -0,0 +1,9 @@
+package es.upm.etsisi.poo.domain.product;
+
+// Product types as listed by 'prod list --kind' (one per concrete Product class).
+public enum ProductKind {
+    STANDARD,
+    CUSTOMIZABLE,
+    EVENT,              // Food and meetings (EventProduct)
+    SERVICE
+}
@@ -1,18 +1,29 @@
 package es.upm.etsisi.poo.domain.product;
 
 import java.util.List;
+import java.io.IOException;
 import java.util.Collections;
 import java.time.LocalDateTime;
 
+import es.upm.etsisi.poo.domain.money.Money;
+import es.upm.etsisi.poo.domain.printing.ReceiptWriter;
 import es.upm.etsisi.poo.domain.exceptions.InvalidProductDataException;
 
 // [Class] Product type: Service.
 public class Service extends Product {
     private final ServiceType serviceType;
     private final LocalDateTime expirationDate;
+    private transient String expirationDetails;
 
     public Service(LocalDateTime expirationDate, ServiceType serviceType) throws InvalidProductDataException {
-        super((nextServiceId++) + "S", "Service " + serviceType.name(), null, 0.0); // Price is 0.0
+        super((nextServiceId++) + "S", "Service " + serviceType.name(), null, Money.ZERO); // Price is 0.00
+        this.expirationDate = expirationDate;
+        this.serviceType = serviceType;
+    }
+
+    // Constructor that accepts ID (e.g. when restoring a snapshot)
+    public Service(String id, LocalDateTime expirationDate, ServiceType serviceType) throws InvalidProductDataException {
+        super(id, "Service " + serviceType.name(), null, Money.ZERO);
         this.expirationDate = expirationDate;
         this.serviceType = serviceType;
     }
@@ -37,8 +48,8 @@ public class Service extends Product {
     }
 
     @Override
-    public double getLineTotal(int quantity, List<String> customTexts) {
-        return getPrice() * quantity;
+    public long getLineTotalCents(int quantity, List<String> customTexts) {
+        return Math.multiplyExact(getPrice().getCents(), quantity);
     }
 
     @Override
@@ -46,6 +57,11 @@ public class Service extends Product {
         return false;
     }
 
+    @Override
+    public ProductKind getKind() {
+        return ProductKind.SERVICE;
+    }
+
     @Override
     public void validate() {
         // No specific validation for generic services.
@@ -58,11 +74,20 @@ public class Service extends Product {
 
     @Override
     public String getExpirationDetails() {
-        return ", Date: " + this.getExpirationDate().toString();
+        // Cache: Date text is built once per product, not per printed line.
+        if (expirationDetails == null) {
+            expirationDetails = ", Date: " + this.getExpirationDate().toString();
+        }
+        return expirationDetails;
     }
 
     @Override
     public String getPrintablePriceDetails() {
         return "Price: HIDDEN";
     }
+
+    @Override
+    public void writePrintablePriceDetails(ReceiptWriter out) throws IOException {
+        out.append(getPrintablePriceDetails());
+    }
 }
\ No newline at end of file
@@ -4,26 +4,27 @@ import java.util.List;
 import java.util.Collections;
 import java.time.LocalDateTime;
 
+import es.upm.etsisi.poo.domain.money.Money;
 import es.upm.etsisi.poo.domain.exceptions.InvalidProductDataException;
 
 // [Class] Product subtype.
 public class StandardProduct extends Product {
 
-    public StandardProduct(String name, ProductCategory category, double price) throws InvalidProductDataException {
+    public StandardProduct(String name, ProductCategory category, Money price) throws InvalidProductDataException {
         super(name, category, price);
         validateStandardProduct(name, price);
     }
 
-    public StandardProduct(String id, String name, ProductCategory category, double price) throws InvalidProductDataException {
+    public StandardProduct(String id, String name, ProductCategory category, Money price) throws InvalidProductDataException {
         super(id, name, category, price);
         validateStandardProduct(name, price);
     }
 
-    private void validateStandardProduct(String name, double price) {
+    private void validateStandardProduct(String name, Money price) {
         if (name == null || name.trim().isEmpty() || name.length() > MAX_NAME_LENGTH) {
             throw new InvalidProductDataException("Error: Name cannot be empty or exceed " + MAX_NAME_LENGTH + " characters.");
         }
-        if (price <= 0) {
+        if (!price.isPositive()) {
             throw new InvalidProductDataException("Error: Price must be greater than 0.");
         }
     }
@@ -39,8 +40,8 @@ public class StandardProduct extends Product {
     }
 
     @Override
-    public double getLineTotal(int quantity, List<String> customTexts) {
-        return getPrice() * quantity;
+    public long getLineTotalCents(int quantity, List<String> customTexts) {
+        return Math.multiplyExact(getPrice().getCents(), quantity);
     }
 
     @Override
@@ -48,6 +49,11 @@ public class StandardProduct extends Product {
         return false;
     }
 
+    @Override
+    public ProductKind getKind() {
+        return ProductKind.STANDARD;
+    }
+
     @Override
     public void validate() {
         // Standard products have no specific validation logic.
@@ -60,6 +66,6 @@ public class StandardProduct extends Product {
 
     @Override
     public String getPrintablePriceDetails() {
-        return String.format("Price: %.2f", getPrice());
+        return "Price: " + getPrice();
     }
 }
\ No newline at end of file
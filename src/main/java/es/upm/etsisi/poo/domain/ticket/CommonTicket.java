@@ -1,10 +1,6 @@
 package es.upm.etsisi.poo.domain.ticket;
 
-import java.util.Map;
-import java.util.HashMap;
-
 import es.upm.etsisi.poo.domain.product.Product;
-import es.upm.etsisi.poo.domain.product.ProductCategory;
 import es.upm.etsisi.poo.domain.exceptions.TicketRuleViolationException;
 
 // [Class] Ticket implementation for specific Client types.
@@ -25,29 +21,7 @@ public class CommonTicket extends Ticket<Product> {
     }
 
     @Override
-    public double getTotalPrice() {
-        double total = 0.0;
-        // Map to count items per category
-        Map<ProductCategory, Integer> categoryCounts = new HashMap<>();
-
-        // First count quantities per category
-        for (TicketLine<Product> line : getLines()) {
-            Product p = line.getProduct();
-            if (p.getCategory() != null) {
-                categoryCounts.put(p.getCategory(), categoryCounts.getOrDefault(p.getCategory(), 0) + line.getQuantity());
-            }
-        }
-
-        // Then calculate price with discounts
-        for (TicketLine<Product> line : getLines()) {
-            double lineTotal = line.getLineTotal();
-            Product p = line.getProduct();
-            // APPLY DISCOUNT ONLY IF COUNT >= 2
-            if (p.getCategory() != null && categoryCounts.getOrDefault(p.getCategory(), 0) >= 2) {
-                lineTotal *= (1.0 - p.getCategory().getDiscount());
-            }
-            total += lineTotal;
-        }
-        return total;
+    public long getTotalCents() {
+        return PricingEngine.commonTotal(getTotals());
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package es.upm.etsisi.poo.domain.ticket;
 
+import java.io.IOException;
 import java.io.Serializable;
 
 import es.upm.etsisi.poo.domain.product.Product;
@@ -7,13 +8,19 @@ import es.upm.etsisi.poo.domain.exceptions.TicketRuleViolationException;
 
 // [Class] Ticket implementation for specific Client types.
 public class CompanyTicket extends Ticket<Product> {
+    private final TicketPrintType printType;
     private final ValidationPolicy validationPolicy;
 
     public CompanyTicket(String id, TicketPrintType printType) {
         super(id);
+        this.printType = printType;
         this.validationPolicy = ValidationPolicyFactory.getPolicy(printType);
     }
 
+    public TicketPrintType getPrintType() {
+        return printType;
+    }
+
     @Override
     public boolean accepts(Product p) {
         try {
@@ -30,36 +37,15 @@ public class CompanyTicket extends Ticket<Product> {
     }
 
     @Override
-    public String print() {
-        int pCount = 0;
-        int sCount = 0;
-        for (TicketLine<Product> line : getLines()) {
-            if (line.getProduct().isService()) {
-                sCount++;
-            } else {
-                pCount++;
-            }
-        }
-        validationPolicy.validatePrint(pCount, sCount);
-        return super.print();
+    public void print(Appendable out) throws IOException {
+        TicketTotals totals = getTotals();
+        validationPolicy.validatePrint(totals.getProductLineCount(), totals.getServiceLineCount());
+        super.print(out);
     }
 
     @Override
-    public double getTotalPrice() {
-        double standardProductsTotal = 0.0;
-        int numServices = 0;
-
-        for (TicketLine<Product> line : getLines()) {
-            Product product = line.getProduct();
-            if (product.isService()) {
-                numServices++;
-            } else {
-                standardProductsTotal += line.getLineTotal();
-            }
-        }
-
-        double discountRate = Math.min(numServices * 0.15, 1.0);
-        return standardProductsTotal * (1.0 - discountRate);
+    public long getTotalCents() {
+        return PricingEngine.companyTotal(getTotals());
     }
 
     private interface ValidationPolicy extends Serializable {
@@ -0,0 +1,70 @@
+package es.upm.etsisi.poo.domain.ticket;
+
+import java.util.List;
+
+import es.upm.etsisi.poo.domain.money.Money;
+import es.upm.etsisi.poo.domain.product.ProductCategory;
+
+// [Class] Allocation-free pricing rules (amounts in cents) shared by Common and Company tickets.
+public final class PricingEngine {
+    public static final int SERVICE_DISCOUNT_BASIS_POINTS = 1500;   // E3 requirement: 15% off products per service
+    private static final int MIN_CATEGORY_DISCOUNT_QUANTITY = 2;     // E1 requirement: discount from 2 units
+    private static final ProductCategory[] CATEGORIES = ProductCategory.values();
+
+    // Scratch: One reusable accumulator per thread for pricing raw line lists.
+    private static final ThreadLocal<TicketTotals> SCRATCH = ThreadLocal.withInitial(TicketTotals::new);
+
+    private PricingEngine() {
+    }
+
+    // E1: Category discount once a category reaches 2 units.
+    public static long commonTotal(TicketTotals totals) {
+        // Lines without category (and services) are never discounted.
+        long total = totals.getUncategorizedSubtotal() + totals.getServiceSubtotal();
+        for (ProductCategory category : CATEGORIES) {
+            long subtotal = totals.getCategorySubtotal(category);
+            if (totals.getCategoryQuantity(category) >= MIN_CATEGORY_DISCOUNT_QUANTITY) {
+                subtotal = Money.percentage(subtotal, Money.BASIS_POINTS - category.getDiscountBasisPoints());
+            }
+            total += subtotal;
+        }
+        return total;
+    }
+
+    // E3: Products discounted 15% per service line, services not charged.
+    public static long companyTotal(TicketTotals totals) {
+        return Money.percentage(standardProductsTotal(totals), Money.BASIS_POINTS - companyDiscountBasisPoints(totals));
+    }
+
+    public static long standardProductsTotal(TicketTotals totals) {
+        long total = totals.getUncategorizedSubtotal();
+        for (ProductCategory category : CATEGORIES) {
+            total += totals.getCategorySubtotal(category);
+        }
+        return total;
+    }
+
+    public static int companyDiscountBasisPoints(TicketTotals totals) {
+        return Math.min(totals.getServiceLineCount() * SERVICE_DISCOUNT_BASIS_POINTS, Money.BASIS_POINTS);
+    }
+
+    // Rounding: Discount is the exact difference, so the receipt always adds up.
+    public static long companyDiscount(TicketTotals totals) {
+        return standardProductsTotal(totals) - companyTotal(totals);
+    }
+
+    public static long commonTotal(List<? extends TicketLine<?>> lines) {
+        return commonTotal(scratch(lines));
+    }
+
+    public static long companyTotal(List<? extends TicketLine<?>> lines) {
+        return companyTotal(scratch(lines));
+    }
+
+    private static TicketTotals scratch(List<? extends TicketLine<?>> lines) {
+        TicketTotals totals = SCRATCH.get();
+        totals.reset();
+        totals.accumulate(lines);
+        return totals;
+    }
+}
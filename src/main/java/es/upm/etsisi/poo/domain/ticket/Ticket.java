@@ -1,29 +1,50 @@
 package es.upm.etsisi.poo.domain.ticket;
 
+import java.util.Map;
 import java.util.List;
+import java.util.HashMap;
 import java.util.Objects;
-import java.util.Iterator;
 import java.util.ArrayList;
+import java.io.IOException;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
+import es.upm.etsisi.poo.domain.money.Money;
 import es.upm.etsisi.poo.domain.product.Product;
+import es.upm.etsisi.poo.domain.product.ProductChangeListener;
 import es.upm.etsisi.poo.domain.printing.PrintStrategy;
+import es.upm.etsisi.poo.domain.exceptions.DuplicateEntryException;
 import es.upm.etsisi.poo.domain.exceptions.TicketRuleViolationException;
 
 // [Entity] Abstract Ticket.
-public abstract class Ticket<T extends Product> implements Serializable, Comparable<Ticket<?>> {
+public abstract class Ticket<T extends Product> implements Serializable, Comparable<Ticket<?>>, ProductChangeListener {
     private static final int MAX_TICKET_LINES = 100;
-    private String id;
-    private TicketState state;
+    private static final int MAX_ID_ATTEMPTS = 10;
+    private volatile String id;             // Concurrency: Read by other tills (lookups, listings).
+    private volatile TicketState state;
     private final List<TicketLine<T>> lines;
+    // Index: Lines by product ID, and by product ID + custom texts for merges.
+    private final Map<String, List<TicketLine<T>>> linesByProduct;
+    private final Map<LineKey, TicketLine<T>> mergeableLines;
     private PrintStrategy printStrategy;
+    private String cashierId;
+    private String clientId;
+    private final List<TicketIdListener> idListeners;
+
+    // Running totals: Kept in step with the lines.
+    private final TicketTotals totals;
+    private volatile boolean totalsStale;  // Set from the thread editing the product.
 
     public Ticket(String id) {
         this.id = (id != null) ? id : generateTicketId();
         this.state = TicketState.EMPTY;
         this.lines = new ArrayList<>();
+        this.linesByProduct = new HashMap<>();
+        this.mergeableLines = new HashMap<>();
+        this.idListeners = new ArrayList<>();
+        this.totals = new TicketTotals();
     }
 
     public String getId() {
@@ -42,6 +63,31 @@ public abstract class Ticket<T extends Product> implements Serializable, Compara
         return printStrategy;
     }
 
+    // Reverse index: Owners recorded by Store on creation.
+    public void setOwners(String cashierId, String clientId) {
+        this.cashierId = cashierId;
+        this.clientId = clientId;
+    }
+
+    public String getCashierId() {
+        return cashierId;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    // Observer: Indexes keyed by ticket ID register here.
+    public void addIdListener(TicketIdListener listener) {
+        if (!idListeners.contains(listener)) {
+            idListeners.add(listener);
+        }
+    }
+
+    public void removeIdListener(TicketIdListener listener) {
+        idListeners.remove(listener);
+    }
+
     public void addProduct(T product, int quantity, List<String> customTexts) {
         // Rule: Closed tickets are read-only.
         if (this.state == TicketState.CLOSED) {
@@ -49,12 +95,9 @@ public abstract class Ticket<T extends Product> implements Serializable, Compara
         }
 
         // Rule: No duplicate Bookables allowed.
-        if (product.isBookable()) {
-            for (TicketLine<T> line : lines) {
-                if (line.getProduct().getId().equals(product.getId())) {
-                    throw new TicketRuleViolationException("Bookable products cannot be duplicated in a ticket.");
-                }
-            }
+        List<TicketLine<T>> productLines = linesByProduct.get(product.getId());
+        if (product.isBookable() && productLines != null) {
+            throw new TicketRuleViolationException("Bookable products cannot be duplicated in a ticket.");
         }
 
         // Constraint: Max 100 items (E1).
@@ -62,19 +105,27 @@ public abstract class Ticket<T extends Product> implements Serializable, Compara
             throw new TicketRuleViolationException("Ticket cannot exceed " + MAX_TICKET_LINES + " lines.");
         }
 
-        boolean merged = false;
-        if (!product.isBookable()) {
-            for (TicketLine<T> line : lines) {
-                if (line.getProduct().getId().equals(product.getId()) && Objects.equals(line.getCustomTexts(), customTexts)) {
-                    line.setQuantity(line.getQuantity() + quantity);
-                    merged = true;
-                    break;
-                }
-            }
-        }
+        LineKey key = new LineKey(product.getId(), customTexts);
+        TicketLine<T> mergeLine = product.isBookable() ? null : mergeableLines.get(key);
 
-        if (!merged) {
-            lines.add(new TicketLine<>(quantity, product, customTexts));
+        if (mergeLine != null) {
+            totals.account(mergeLine, -1);
+            mergeLine.setQuantity(mergeLine.getQuantity() + quantity);
+            totals.account(mergeLine, 1);
+        } else {
+            TicketLine<T> line = new TicketLine<>(quantity, product, customTexts);
+            lines.add(line);
+            if (productLines == null) {
+                productLines = new ArrayList<>();
+                linesByProduct.put(product.getId(), productLines);
+            }
+            productLines.add(line);
+            if (!product.isBookable()) {
+                mergeableLines.put(key, line);
+            }
+            totals.countLine(line, 1);
+            totals.account(line, 1);
+            product.addChangeListener(this);
         }
 
         if (this.state == TicketState.EMPTY) {
@@ -88,32 +139,101 @@ public abstract class Ticket<T extends Product> implements Serializable, Compara
             throw new TicketRuleViolationException("Cannot remove items from CLOSED ticket.");
         }
 
-        boolean removed = false;
-        Iterator<TicketLine<T>> iterator = lines.iterator();
-        while (iterator.hasNext()) {
-            TicketLine<T> line = iterator.next();
-            if (line.getProduct().getId().equals(productId)) {
-                iterator.remove();
-                removed = true;
+        List<TicketLine<T>> productLines = linesByProduct.remove(productId);
+        boolean removed = productLines != null;
+        if (removed) {
+            lines.removeIf(productLines::contains);
+            for (TicketLine<T> line : productLines) {
+                mergeableLines.remove(new LineKey(productId, line.getCustomTexts()));
+                totals.countLine(line, -1);
+                totals.account(line, -1);
+                line.getProduct().removeChangeListener(this);
             }
         }
         if (lines.isEmpty()) {
             this.state = TicketState.EMPTY;
+            totals.reset();
         }
         return removed;
     }
 
     public String print() {
+        StringBuilder sb = new StringBuilder();
+        try {
+            print(sb);
+        } catch (IOException e) {
+            // StringBuilder never throws; kept for the Appendable contract.
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    // Streaming: Receipt goes straight to the given Writer/stream, no String copy.
+    public void print(Appendable out) throws IOException {
+        if (render(out)) {
+            // Logic: Close ticket and generate final ID; a random ID already taken is drawn again.
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    closeAs(generateTicketId());
+                    return;
+                } catch (DuplicateEntryException e) {
+                    if (attempt == MAX_ID_ATTEMPTS) {
+                        throw e;
+                    }
+                }
+            }
+        }
+    }
+
+    // Render: Receipt only, no state change (archived tickets are reprinted this way).
+    public boolean render(Appendable out) throws IOException {
         if (printStrategy == null) {
-            return "Error: No print strategy set.";
+            out.append("Error: No print strategy set.");
+            return false;
         }
+        printStrategy.formatTicket(this, out);
+        return true;
+    }
 
-        String result = printStrategy.formatTicket(this);
+    // Persistence: Close under a known final ID (journal replay reuses the printed one).
+    // Check: Throws DuplicateEntryException, leaving the ticket open under its old ID, if an index
+    // already holds finalId; indexes re-keyed before the clash are moved back.
+    public void closeAs(String finalId) {
+        String oldId = this.id;
+        this.id = finalId;
+        for (int i = 0; i < idListeners.size(); i++) {
+            try {
+                idListeners.get(i).onTicketIdChanged(this, oldId, finalId);
+            } catch (DuplicateEntryException e) {
+                this.id = oldId;
+                for (int j = 0; j < i; j++) {
+                    idListeners.get(j).onTicketIdChanged(this, finalId, oldId);
+                }
+                throw e;
+            }
+        }
+        close();
+    }
 
-        // Logic: Close ticket and generate final ID.
-        this.id = generateTicketId();
+    // Persistence: Reapply a saved state once the lines have been re-added.
+    public void restoreState(TicketState savedState) {
+        if (savedState == TicketState.CLOSED) {
+            close();
+        }
+    }
+
+    // Observer: Only open tickets listen to their products; a closed one is priced afresh from its
+    // lines on each query (see getTotals), so products don't hold on to every ticket they were sold in.
+    private void close() {
         this.state = TicketState.CLOSED;
-        return result;
+        detachProducts();
+    }
+
+    // Observer: The ticket is closing or leaving memory (its cashier removed); stop listening.
+    public void detachProducts() {
+        for (TicketLine<T> line : lines) {
+            line.getProduct().removeChangeListener(this);
+        }
     }
 
     public abstract boolean accepts(Product p);
@@ -123,7 +243,40 @@ public abstract class Ticket<T extends Product> implements Serializable, Compara
         return lines;
     }
 
-    public abstract double getTotalPrice();
+    // Pricing: Exact total in cents, allocation-free.
+    public abstract long getTotalCents();
+
+    public Money getTotalPrice() {
+        return Money.ofCents(getTotalCents());
+    }
+
+    @Override
+    public void onProductChanged(Product product) {
+        // Logic: Price/category edits are folded in on the next total query.
+        this.totalsStale = true;
+    }
+
+    // Running totals: O(#categories) input for PricingEngine.
+    // Logic: Closed tickets rebuild theirs from the lines (read-only now), so a reprint after a product
+    // edit shows lines and total from the same prices; each caller gets its own copy.
+    public TicketTotals getTotals() {
+        if (state == TicketState.CLOSED) {
+            TicketTotals current = new TicketTotals();
+            current.accumulate(lines);
+            return current;
+        }
+        refreshTotals();
+        return totals;
+    }
+
+    // Logic: Rebuild from the lines only after a product edit.
+    private void refreshTotals() {
+        if (totalsStale) {
+            totals.reset();
+            totals.accumulate(lines);
+            totalsStale = false;
+        }
+    }
 
     private String generateTicketId() {
         // Format: Date + Random Digits.
@@ -136,4 +289,27 @@ public abstract class Ticket<T extends Product> implements Serializable, Compara
     public int compareTo(Ticket<?> other) {
         return this.id.compareTo(other.id);
     }
+
+    // Key: Lines merge when product ID and custom texts match.
+    private static final class LineKey implements Serializable {
+        private final String productId;
+        private final List<String> customTexts;
+
+        LineKey(String productId, List<String> customTexts) {
+            this.productId = productId;
+            this.customTexts = customTexts;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof LineKey other)) return false;
+            return productId.equals(other.productId) && Objects.equals(customTexts, other.customTexts);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * productId.hashCode() + Objects.hashCode(customTexts);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package es.upm.etsisi.poo.domain.ticket;
+
+import java.io.Serializable;
+
+// [Interface] Observer notified when a Ticket changes its ID (e.g. on print).
+public interface TicketIdListener extends Serializable {
+    void onTicketIdChanged(Ticket<?> ticket, String oldId, String newId);
+}
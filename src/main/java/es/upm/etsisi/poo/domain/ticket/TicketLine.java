@@ -3,6 +3,7 @@ package es.upm.etsisi.poo.domain.ticket;
 import java.util.List;
 import java.io.Serializable;
 
+import es.upm.etsisi.poo.domain.money.Money;
 import es.upm.etsisi.poo.domain.product.Product;
 
 public class TicketLine<T extends Product> implements Serializable {
@@ -32,7 +33,11 @@ public class TicketLine<T extends Product> implements Serializable {
         return customTexts;
     }
 
-    public double getLineTotal() {
-        return product.getLineTotal(quantity, customTexts);
+    public long getLineTotalCents() {
+        return product.getLineTotalCents(quantity, customTexts);
+    }
+
+    public Money getLineTotal() {
+        return Money.ofCents(getLineTotalCents());
     }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package es.upm.etsisi.poo.domain.ticket;
+
+import java.io.Serializable;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// [Class] Striped locks serializing changes to one ticket (add/remove lines, print).
+// Stripe: Chosen by object identity, since a ticket's ID changes when it is printed.
+public final class TicketLocks implements Serializable {
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final ReentrantLock[] stripes;
+
+    public TicketLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    // Config: Rounded up to a power of two.
+    public TicketLocks(int stripeCount) {
+        int size = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock lockFor(Ticket<?> ticket) {
+        int hash = System.identityHashCode(ticket);
+        hash ^= (hash >>> 16);     // Spread high bits into the mask.
+        return stripes[hash & (stripes.length - 1)];
+    }
+}
@@ -1,35 +1,96 @@
 package es.upm.etsisi.poo.domain.ticket;
 
+import java.util.Map;
+import java.util.Set;
 import java.util.List;
 import java.util.ArrayList;
 import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import es.upm.etsisi.poo.domain.exceptions.DuplicateEntryException;
 
 // [Class] Manages the list of Tickets.
-public class TicketRepository implements Serializable {
-    private final List<Ticket<?>> tickets;
+// Concurrency: Lock-free; tills add, look up and re-key tickets concurrently.
+public class TicketRepository implements Serializable, TicketIdListener {
+    // Order: Insertion order for listing (arrival position -> Ticket); O(log n) removal when
+    // tickets are archived.
+    private final ConcurrentSkipListMap<Long, Ticket<?>> tickets;
+    // Membership: Ticket -> its arrival position.
+    private final Map<Ticket<?>, Long> positions;
+    private final AtomicLong nextPosition;
+    // Index: Current ticket ID -> Ticket (kept in sync on print).
+    private final Map<String, Ticket<?>> ticketsById;
+    // Archive: IDs of tickets moved to the archive while held here (membership outlives the copy).
+    private final Set<String> archivedIds;
 
     public TicketRepository() {
-        this.tickets = new ArrayList<>();
+        this.tickets = new ConcurrentSkipListMap<>();
+        this.positions = new ConcurrentHashMap<>();
+        this.nextPosition = new AtomicLong();
+        this.ticketsById = new ConcurrentHashMap<>();
+        this.archivedIds = ConcurrentHashMap.newKeySet();
     }
 
     public void add(Ticket<?> ticket) {
-        tickets.add(ticket);
+        // Validation: Prevent duplicate IDs (atomic check-and-insert).
+        if (ticketsById.putIfAbsent(ticket.getId(), ticket) != null) {
+            throw new DuplicateEntryException("Ticket with ID " + ticket.getId() + " already exists.");
+        }
+        long position = nextPosition.getAndIncrement();
+        positions.put(ticket, position);
+        tickets.put(position, ticket);
+        ticket.addIdListener(this);
     }
 
     public Ticket<?> findById(String id) {
-        for (Ticket<?> ticket : tickets) {
-            if (ticket.getId().equals(id)) {
-                return ticket;
-            }
-        }
-        return null;
+        return ticketsById.get(id);
     }
 
     public List<Ticket<?>> getAll() {
-        return new ArrayList<>(tickets);
+        return new ArrayList<>(tickets.values());
     }
 
     public void remove(Ticket<?> ticket) {
-        tickets.remove(ticket);
+        Long position = positions.remove(ticket);
+        if (position != null) {
+            tickets.remove(position);
+            ticketsById.remove(ticket.getId(), ticket);
+            ticket.removeIdListener(this);
+        }
+    }
+
+    // Archive: Drop the in-memory ticket but keep it as a member.
+    public void archive(Ticket<?> ticket) {
+        remove(ticket);
+        archivedIds.add(ticket.getId());
+    }
+
+    // Persistence: Restore an archived member from a snapshot.
+    public void addArchived(String id) {
+        archivedIds.add(id);
+    }
+
+    // Check: Held here, live or archived.
+    public boolean contains(String id) {
+        return ticketsById.containsKey(id) || archivedIds.contains(id);
+    }
+
+    public List<String> getArchivedIds() {
+        return new ArrayList<>(archivedIds);
+    }
+
+    @Override
+    public void onTicketIdChanged(Ticket<?> ticket, String oldId, String newId) {
+        if (newId.equals(oldId)) {
+            return;
+        }
+        // Validation: Like add(), never hide another ticket (live or archived) under the new ID.
+        if (archivedIds.contains(newId) || ticketsById.putIfAbsent(newId, ticket) != null) {
+            throw new DuplicateEntryException("Ticket with ID " + newId + " already exists.");
+        }
+        // Logic: Re-key the ticket under its new ID.
+        ticketsById.remove(oldId, ticket);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,33 @@
+package es.upm.etsisi.poo.domain.ticket;
+
+// [Class] One row of 'ticket list': the ticket's ID, owners and state, without its lines.
+// Archived tickets are listed from the archive index, so none has to be read back.
+public final class TicketSummary {
+    private final String id;
+    private final String cashierId;
+    private final String clientId;
+    private final TicketState state;
+
+    public TicketSummary(String id, String cashierId, String clientId, TicketState state) {
+        this.id = id;
+        this.cashierId = cashierId;
+        this.clientId = clientId;
+        this.state = state;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getCashierId() {
+        return cashierId;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public TicketState getState() {
+        return state;
+    }
+}
@@ -0,0 +1,88 @@
+package es.upm.etsisi.poo.domain.ticket;
+
+import java.util.List;
+import java.util.Arrays;
+import java.io.Serializable;
+
+import es.upm.etsisi.poo.domain.product.Product;
+import es.upm.etsisi.poo.domain.product.ProductCategory;
+
+// [Class] Primitive accumulators for pricing (amounts in cents), indexed by ProductCategory ordinal.
+public class TicketTotals implements Serializable {
+    private static final int NUM_CATEGORIES = ProductCategory.values().length;
+
+    private final int[] categoryQuantities;
+    private final long[] categorySubtotals;
+    private long uncategorizedSubtotal;
+    private long serviceSubtotal;
+    private int productLineCount;
+    private int serviceLineCount;
+
+    public TicketTotals() {
+        this.categoryQuantities = new int[NUM_CATEGORIES];
+        this.categorySubtotals = new long[NUM_CATEGORIES];
+    }
+
+    // Logic: Add (sign = 1) or subtract (sign = -1) a line's amount.
+    void account(TicketLine<?> line, int sign) {
+        Product product = line.getProduct();
+        long lineTotal = sign * line.getLineTotalCents();
+        if (product.isService()) {
+            serviceSubtotal += lineTotal;
+        } else if (product.getCategory() == null) {
+            uncategorizedSubtotal += lineTotal;
+        } else {
+            int index = product.getCategory().ordinal();
+            categorySubtotals[index] += lineTotal;
+            categoryQuantities[index] += sign * line.getQuantity();
+        }
+    }
+
+    void countLine(TicketLine<?> line, int sign) {
+        if (line.getProduct().isService()) {
+            serviceLineCount += sign;
+        } else {
+            productLineCount += sign;
+        }
+    }
+
+    void accumulate(List<? extends TicketLine<?>> lines) {
+        for (TicketLine<?> line : lines) {
+            countLine(line, 1);
+            account(line, 1);
+        }
+    }
+
+    void reset() {
+        Arrays.fill(categoryQuantities, 0);
+        Arrays.fill(categorySubtotals, 0L);
+        uncategorizedSubtotal = 0L;
+        serviceSubtotal = 0L;
+        productLineCount = 0;
+        serviceLineCount = 0;
+    }
+
+    public int getCategoryQuantity(ProductCategory category) {
+        return categoryQuantities[category.ordinal()];
+    }
+
+    public long getCategorySubtotal(ProductCategory category) {
+        return categorySubtotals[category.ordinal()];
+    }
+
+    public long getUncategorizedSubtotal() {
+        return uncategorizedSubtotal;
+    }
+
+    public long getServiceSubtotal() {
+        return serviceSubtotal;
+    }
+
+    public int getProductLineCount() {
+        return productLineCount;
+    }
+
+    public int getServiceLineCount() {
+        return serviceLineCount;
+    }
+}
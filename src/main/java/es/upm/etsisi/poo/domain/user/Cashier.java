@@ -1,17 +1,17 @@
 package es.upm.etsisi.poo.domain.user;
 
 import java.util.List;
-import java.util.ArrayList;
 
 import es.upm.etsisi.poo.domain.ticket.Ticket;
+import es.upm.etsisi.poo.domain.ticket.TicketRepository;
 
 // [Entity] Cashier User.
 public class Cashier extends User implements Comparable<Cashier> {
-    private final List<Ticket<?>> tickets;
+    private final TicketRepository tickets;     // Index: Owned tickets by ID.
 
     public Cashier(String id, String name, String email) {
         super(id, name, email);
-        this.tickets = new ArrayList<>();
+        this.tickets = new TicketRepository();
     }
 
     public static String generateCashierId(List<Cashier> existingCashiers) {
@@ -45,18 +45,30 @@ public class Cashier extends User implements Comparable<Cashier> {
         this.tickets.add(ticket);
     }
 
+    public void removeTicket(Ticket<?> ticket) {
+        this.tickets.remove(ticket);
+    }
+
+    // Archive: Ticket moved out of memory; the cashier still owns its ID.
+    public void archiveTicket(Ticket<?> ticket) {
+        this.tickets.archive(ticket);
+    }
+
+    public void addArchivedTicket(String ticketId) {
+        this.tickets.addArchived(ticketId);
+    }
+
     public List<Ticket<?>> getTickets() {
-        return new ArrayList<>(tickets);
+        return tickets.getAll();
     }
 
-    // Check: Verify ownership.
+    public List<String> getArchivedTicketIds() {
+        return tickets.getArchivedIds();
+    }
+
+    // Check: Verify ownership (live or archived).
     public boolean hasTicket(String ticketId) {
-        for (Ticket<?> ticket : tickets) {
-            if (ticket.getId().equals(ticketId)) {
-                return true;
-            }
-        }
-        return false;
+        return tickets.contains(ticketId);
     }
 
     @Override
@@ -1,36 +1,45 @@
 package es.upm.etsisi.poo.domain.user;
 
+import java.util.Map;
 import java.util.List;
 import java.util.ArrayList;
 import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import es.upm.etsisi.poo.domain.exceptions.DuplicateEntryException;
 
+// Concurrency: Lookups and listings never lock; the rare add/remove are synchronized.
 public class CashierRepository implements Serializable {
-    private final List<Cashier> cashiers = new ArrayList<>();
+    // Index: ID -> Cashier.
+    private final Map<String, Cashier> cashiers = new ConcurrentHashMap<>();
+    // Order: Insertion order for listing (arrival position -> Cashier); O(log n) add and removal.
+    private final ConcurrentSkipListMap<Long, Cashier> ordered = new ConcurrentSkipListMap<>();
+    // Membership: ID -> arrival position.
+    private final Map<String, Long> positions = new ConcurrentHashMap<>();
+    private long nextPosition;
 
-    public void add(Cashier cashier) {
+    public synchronized void add(Cashier cashier) {
         // Validation: Prevent duplicate IDs.
-        if (findById(cashier.getId()) != null) {
+        if (cashiers.putIfAbsent(cashier.getId(), cashier) != null) {
             throw new DuplicateEntryException("Cashier with ID " + cashier.getId() + " already exists.");
         }
-        cashiers.add(cashier);
+        long position = nextPosition++;
+        positions.put(cashier.getId(), position);
+        ordered.put(position, cashier);
     }
 
     public Cashier findById(String id) {
-        for (Cashier cashier : cashiers) {
-            if (cashier.getId().equals(id)) {
-                return cashier;
-            }
-        }
-        return null;
+        return cashiers.get(id);
     }
 
     public List<Cashier> getAll() {
-        return new ArrayList<>(cashiers);
+        return new ArrayList<>(ordered.values());
     }
 
-    public void remove(String id) {
-        cashiers.removeIf(c -> c.getId().equals(id));
+    public synchronized void remove(String id) {
+        if (cashiers.remove(id) != null) {
+            ordered.remove(positions.remove(id));
+        }
     }
 }
\ No newline at end of file
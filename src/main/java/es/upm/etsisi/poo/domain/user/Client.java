@@ -1,5 +1,7 @@
 package es.upm.etsisi.poo.domain.user;
 
+import java.util.List;
+
 import es.upm.etsisi.poo.domain.ticket.Ticket;
 
 // [Abstract Class] Base class for Clients.
@@ -11,6 +13,13 @@ public abstract class Client extends User implements Comparable<Client> {
 
     public abstract boolean validateId(String id);
     public abstract void addTicket(Ticket<?> ticket);
+    public abstract void removeTicket(Ticket<?> ticket);
+    // Archive: Ticket moved out of memory; the client still owns its ID.
+    public abstract void archiveTicket(Ticket<?> ticket);
+    public abstract void addArchivedTicket(String ticketId);
+    public abstract List<Ticket<?>> getTickets();
+    public abstract List<String> getArchivedTicketIds();
+    // Check: Live or archived.
     public abstract boolean hasTicket(String ticketId);
     public abstract Ticket<?> createTicket(String ticketId, char flag);
 
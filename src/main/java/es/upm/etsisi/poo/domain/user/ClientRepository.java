@@ -1,36 +1,45 @@
 package es.upm.etsisi.poo.domain.user;
 
+import java.util.Map;
 import java.util.List;
 import java.util.ArrayList;
 import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import es.upm.etsisi.poo.domain.exceptions.DuplicateEntryException;
 
+// Concurrency: Lookups and listings never lock; the rare add/remove are synchronized.
 public class ClientRepository implements Serializable {
-    private final List<Client> clients = new ArrayList<>();
+    // Index: ID -> Client.
+    private final Map<String, Client> clients = new ConcurrentHashMap<>();
+    // Order: Insertion order for listing (arrival position -> Client); O(log n) add and removal.
+    private final ConcurrentSkipListMap<Long, Client> ordered = new ConcurrentSkipListMap<>();
+    // Membership: ID -> arrival position.
+    private final Map<String, Long> positions = new ConcurrentHashMap<>();
+    private long nextPosition;
 
-    public void add(Client client) {
+    public synchronized void add(Client client) {
         // Validation: Prevent duplicate IDs.
-        if (findById(client.getId()) != null) {
+        if (clients.putIfAbsent(client.getId(), client) != null) {
             throw new DuplicateEntryException("Client with ID " + client.getId() + " already exists.");
         }
-        clients.add(client);
+        long position = nextPosition++;
+        positions.put(client.getId(), position);
+        ordered.put(position, client);
     }
 
     public Client findById(String id) {
-        for (Client client : clients) {
-            if (client.getId().equals(id)) {
-                return client;
-            }
-        }
-        return null;
+        return clients.get(id);
     }
 
     public List<Client> getAll() {
-        return new ArrayList<>(clients);
+        return new ArrayList<>(ordered.values());
     }
 
-    public void remove(String id) {
-        clients.removeIf(c -> c.getId().equals(id));
+    public synchronized void remove(String id) {
+        if (clients.remove(id) != null) {
+            ordered.remove(positions.remove(id));
+        }
     }
 }
\ No newline at end of file
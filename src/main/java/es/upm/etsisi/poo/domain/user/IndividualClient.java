@@ -1,15 +1,15 @@
 package es.upm.etsisi.poo.domain.user;
 
 import java.util.List;
-import java.util.ArrayList;
 
 import es.upm.etsisi.poo.domain.ticket.Ticket;
+import es.upm.etsisi.poo.domain.ticket.TicketRepository;
 import es.upm.etsisi.poo.domain.ticket.CommonTicket;
 
 // [Entity] Individual (DNI-based) Client.
 public class IndividualClient extends Client {
     private final String cashierId;
-    private final List<Ticket<?>> tickets;
+    private final TicketRepository tickets;     // Index: Owned tickets by ID.
 
     public IndividualClient(String id, String name, String email, String cashierId) {
         super(id, name, email);
@@ -17,7 +17,7 @@ public class IndividualClient extends Client {
             throw new IllegalArgumentException("Error: Cashier ID cannot be null or empty.");
         }
         this.cashierId = cashierId;
-        this.tickets = new ArrayList<>();
+        this.tickets = new TicketRepository();
     }
 
     @Override
@@ -45,18 +45,34 @@ public class IndividualClient extends Client {
         this.tickets.add(ticket);
     }
 
+    @Override
+    public void removeTicket(Ticket<?> ticket) {
+        this.tickets.remove(ticket);
+    }
+
+    @Override
+    public void archiveTicket(Ticket<?> ticket) {
+        this.tickets.archive(ticket);
+    }
+
+    @Override
+    public void addArchivedTicket(String ticketId) {
+        this.tickets.addArchived(ticketId);
+    }
+
+    @Override
     public List<Ticket<?>> getTickets() {
-        return new ArrayList<>(tickets);
+        return tickets.getAll();
+    }
+
+    @Override
+    public List<String> getArchivedTicketIds() {
+        return tickets.getArchivedIds();
     }
 
     @Override
     public boolean hasTicket(String ticketId) {
-        for (Ticket<?> ticket : tickets) {
-            if (ticket.getId().equals(ticketId)) {
-                return true;
-            }
-        }
-        return false;
+        return tickets.contains(ticketId);
     }
 
     @Override
@@ -0,0 +1,21 @@
+package es.upm.etsisi.poo.infrastructure.monitoring;
+
+import jdk.jfr.Name;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+
+// [Event] The part of a checkpoint that holds every till: archiving, journal seal and capture.
+@Name("es.upm.etsisi.poo.CheckpointCapture")
+@Label("Checkpoint Capture")
+@Category({"UPM Store", "Persistence"})
+@Description("Tills paused while a checkpoint captures the store")
+public final class CheckpointCaptureEvent extends Event {
+    @Label("Journal Records")
+    @Description("Records folded into this checkpoint")
+    public int records;
+
+    @Label("Journal Sequence")
+    public long sequence;
+}
@@ -0,0 +1,40 @@
+package es.upm.etsisi.poo.infrastructure.monitoring;
+
+import java.io.IOException;
+
+// [Class] Forwards to another Appendable, counting the characters written.
+public final class CountingAppendable implements Appendable {
+    private final Appendable target;
+    private long count;
+
+    public CountingAppendable(Appendable target) {
+        this.target = target;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public Appendable append(CharSequence text) throws IOException {
+        CharSequence value = text == null ? "null" : text;
+        target.append(value);
+        count += value.length();
+        return this;
+    }
+
+    @Override
+    public Appendable append(CharSequence text, int start, int end) throws IOException {
+        CharSequence value = text == null ? "null" : text;
+        target.append(value, start, end);
+        count += end - start;
+        return this;
+    }
+
+    @Override
+    public Appendable append(char c) throws IOException {
+        target.append(c);
+        count++;
+        return this;
+    }
+}
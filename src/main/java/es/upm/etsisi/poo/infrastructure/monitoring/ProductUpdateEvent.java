@@ -0,0 +1,20 @@
+package es.upm.etsisi.poo.infrastructure.monitoring;
+
+import jdk.jfr.Name;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+
+// [Event] Catalog.updateProduct, timed from Store (it holds every till while it runs).
+@Name("es.upm.etsisi.poo.ProductUpdate")
+@Label("Product Update")
+@Category({"UPM Store", "Catalog"})
+@Description("A catalog product changed; open tickets holding it are repriced")
+public final class ProductUpdateEvent extends Event {
+    @Label("Product ID")
+    public String productId;
+
+    @Label("Field")
+    public String field;
+}
@@ -0,0 +1,29 @@
+package es.upm.etsisi.poo.infrastructure.monitoring;
+
+import jdk.jfr.Name;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+
+// [Event] FilePersistenceHandler.load. Tickets are decoded lazily, later, on first use.
+@Name("es.upm.etsisi.poo.SnapshotLoad")
+@Label("Snapshot Load")
+@Category({"UPM Store", "Persistence"})
+@Description("Store snapshot mapped and decoded at startup")
+public final class SnapshotLoadEvent extends Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Size")
+    @DataAmount(DataAmount.BYTES)
+    public long size;
+
+    @Label("Products")
+    public int products;
+
+    @Label("Legacy")
+    @Description("Java-serialized file from before the binary format")
+    public boolean legacy;
+}
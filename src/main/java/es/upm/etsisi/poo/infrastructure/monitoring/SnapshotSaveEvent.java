@@ -0,0 +1,33 @@
+package es.upm.etsisi.poo.infrastructure.monitoring;
+
+import jdk.jfr.Name;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+
+// [Event] Snapshot written by FilePersistenceHandler.save, or in the background by a checkpoint.
+@Name("es.upm.etsisi.poo.SnapshotSave")
+@Label("Snapshot Save")
+@Category({"UPM Store", "Persistence"})
+@Description("Store snapshot encoded and written to disk")
+public final class SnapshotSaveEvent extends Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Checkpoint")
+    @Description("Written by a checkpoint while the tills keep going")
+    public boolean checkpoint;
+
+    @Label("Size")
+    @DataAmount(DataAmount.BYTES)
+    public long size;
+
+    @Label("Products")
+    public int products;
+
+    @Label("Tickets")
+    @Description("Tickets still in the snapshot (closed ones are archived)")
+    public int tickets;
+}
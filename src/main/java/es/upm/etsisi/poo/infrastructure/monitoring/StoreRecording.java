@@ -0,0 +1,40 @@
+package es.upm.etsisi.poo.infrastructure.monitoring;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.io.IOException;
+import java.text.ParseException;
+
+import jdk.jfr.Recording;
+import jdk.jfr.Configuration;
+
+// [Class] Continuous Flight Recorder session for production tills.
+// Ring buffer: The JDK 'default' settings (GC, locks, I/O at ~1% overhead) plus the store events,
+// kept on disk up to maxSize/maxAge; older chunks are dropped. The buffer is dumped to 'dumpFile'
+// on exit, or at any time with: jcmd <pid> JFR.dump name=upm-store filename=<file>.
+public final class StoreRecording {
+    public static final String NAME = "upm-store";
+
+    private StoreRecording() {
+    }
+
+    public static Recording start(long maxSizeBytes, Duration maxAge, Path dumpFile) throws IOException, ParseException {
+        Recording recording = new Recording(Configuration.getConfiguration("default"));
+        recording.setName(NAME);
+        recording.setToDisk(true);
+        recording.setMaxSize(maxSizeBytes);
+        recording.setMaxAge(maxAge);
+        recording.setDumpOnExit(true);
+        recording.setDestination(dumpFile);
+        // Events: Every store operation, however short; slow ones are found by duration in JMC.
+        recording.enable(TicketCreateEvent.class).withoutThreshold();
+        recording.enable(TicketAddEvent.class).withoutThreshold();
+        recording.enable(TicketPrintEvent.class).withoutThreshold();
+        recording.enable(ProductUpdateEvent.class).withoutThreshold();
+        recording.enable(SnapshotSaveEvent.class).withoutThreshold();
+        recording.enable(SnapshotLoadEvent.class).withoutThreshold();
+        recording.enable(CheckpointCaptureEvent.class).withoutThreshold();
+        recording.start();
+        return recording;
+    }
+}
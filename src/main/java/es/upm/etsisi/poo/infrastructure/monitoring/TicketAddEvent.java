@@ -0,0 +1,30 @@
+package es.upm.etsisi.poo.infrastructure.monitoring;
+
+import jdk.jfr.Name;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+
+// [Event] Store.addProductToTicket, including the wait for the gate and the ticket lock.
+@Name("es.upm.etsisi.poo.TicketAdd")
+@Label("Ticket Add")
+@Category({"UPM Store", "Tickets"})
+@Description("A product added to an open ticket")
+public final class TicketAddEvent extends Event {
+    @Label("Ticket ID")
+    public String ticketId;
+
+    @Label("Cashier ID")
+    public String cashierId;
+
+    @Label("Product ID")
+    public String productId;
+
+    @Label("Amount")
+    public int amount;
+
+    @Label("Line Count")
+    @Description("Lines on the ticket after the add")
+    public int lineCount;
+}
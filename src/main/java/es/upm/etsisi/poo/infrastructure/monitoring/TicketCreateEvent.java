@@ -0,0 +1,26 @@
+package es.upm.etsisi.poo.infrastructure.monitoring;
+
+import jdk.jfr.Name;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+
+// [Event] Store.createTicket, including the wait for the store gate.
+@Name("es.upm.etsisi.poo.TicketCreate")
+@Label("Ticket Create")
+@Category({"UPM Store", "Tickets"})
+@Description("A ticket opened by a cashier")
+public final class TicketCreateEvent extends Event {
+    @Label("Ticket ID")
+    public String ticketId;
+
+    @Label("Cashier ID")
+    public String cashierId;
+
+    @Label("Client ID")
+    public String clientId;
+
+    @Label("Print Type")
+    public String printType;
+}
@@ -0,0 +1,34 @@
+package es.upm.etsisi.poo.infrastructure.monitoring;
+
+import jdk.jfr.Name;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+
+// [Event] Store.printTicket: closing and rendering a receipt (or reprinting an archived one).
+@Name("es.upm.etsisi.poo.TicketPrint")
+@Label("Ticket Print")
+@Category({"UPM Store", "Tickets"})
+@Description("A receipt rendered for a ticket")
+public final class TicketPrintEvent extends Event {
+    @Label("Ticket ID")
+    @Description("ID the ticket was printed under")
+    public String ticketId;
+
+    @Label("Cashier ID")
+    public String cashierId;
+
+    @Label("Line Count")
+    public int lineCount;
+
+    @Label("Receipt Size")
+    @Description("Characters written; receipts are ASCII, so also bytes")
+    @DataAmount(DataAmount.BYTES)
+    public long receiptSize;
+
+    @Label("Reprint")
+    @Description("Archived ticket printed again without closing it")
+    public boolean reprint;
+}
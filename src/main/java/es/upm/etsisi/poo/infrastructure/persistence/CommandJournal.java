@@ -0,0 +1,476 @@
+package es.upm.etsisi.poo.infrastructure.persistence;
+
+import java.util.List;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import es.upm.etsisi.poo.application.Store;
+import es.upm.etsisi.poo.application.StoreJournal;
+import es.upm.etsisi.poo.domain.user.*;
+import es.upm.etsisi.poo.domain.product.Product;
+import es.upm.etsisi.poo.domain.ticket.TicketPrintType;
+import es.upm.etsisi.poo.domain.exceptions.PersistenceException;
+import es.upm.etsisi.poo.domain.exceptions.UPMStoreDomainException;
+
+// [Class] Append-only write-ahead journal of Store mutations.
+// Frame: int length | long sequence | byte type | payload | int CRC32(sequence..payload).
+// Group commit: callers queue their frame and wait; one flusher thread writes and fsyncs
+// everything queued since its last force, so concurrent callers share a single fsync.
+// Concurrency: A ReentrantLock rather than a monitor, so virtual threads waiting for their fsync
+// unmount instead of pinning a carrier thread.
+public class CommandJournal implements StoreJournal {
+    // Tags: Record types.
+    private static final byte PRODUCT_ADDED = 1;
+    private static final byte PRODUCT_UPDATED = 2;
+    private static final byte PRODUCT_REMOVED = 3;
+    private static final byte CLIENT_ADDED = 4;
+    private static final byte CLIENT_REMOVED = 5;
+    private static final byte CASHIER_ADDED = 6;
+    private static final byte CASHIER_REMOVED = 7;
+    private static final byte TICKET_CREATED = 8;
+    private static final byte TICKET_LINE_ADDED = 9;
+    private static final byte TICKET_LINE_REMOVED = 10;
+    private static final byte TICKET_PRINTED = 11;
+
+    private static final byte INDIVIDUAL_CLIENT = 1;
+    private static final byte COMPANY_CLIENT = 2;
+
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+
+    private final Path path;
+    private final Path sealedPath;
+    private final SnapshotCodec codec;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();    // Queued, durable or closed.
+
+    private FileChannel channel;
+    private final FrameBuffer record = new FrameBuffer();
+    private final DataOutputStream recordOut = new DataOutputStream(record);
+    private final CRC32 crc = new CRC32();
+    private FrameBuffer pending = new FrameBuffer();     // Frames waiting for the next fsync.
+    private FrameBuffer spare = new FrameBuffer();       // Frames being written by the flusher.
+    private long appendedSequence;
+    private long durableSequence;
+    private int recordsSinceCheckpoint;
+    private IOException failure;
+    private boolean closed;
+    private final Thread flusher;
+
+    public CommandJournal(Path path, long lastSequence, SnapshotCodec codec) throws IOException {
+        this.path = path;
+        this.sealedPath = sealedPath(path);
+        this.codec = codec;
+        this.appendedSequence = lastSequence;
+        this.durableSequence = lastSequence;
+        this.channel = openChannel(path);
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    static Path sealedPath(Path path) {
+        return path.resolveSibling(path.getFileName() + ".1");
+    }
+
+    private static FileChannel openChannel(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    // ------------------------------------------------------------------ StoreJournal
+
+    @Override
+    public void productAdded(Product product) {
+        append(PRODUCT_ADDED, out -> codec.writeProduct(product, out));
+    }
+
+    @Override
+    public void productUpdated(String productId, String field, String value) {
+        append(PRODUCT_UPDATED, out -> {
+            out.writeUTF(productId);
+            out.writeUTF(field);
+            out.writeUTF(value);
+        });
+    }
+
+    @Override
+    public void productRemoved(String productId) {
+        append(PRODUCT_REMOVED, out -> out.writeUTF(productId));
+    }
+
+    @Override
+    public void clientAdded(Client client) {
+        append(CLIENT_ADDED, out -> {
+            if (client instanceof CompanyClient companyClient) {
+                out.writeByte(COMPANY_CLIENT);
+                writeUser(out, client);
+                out.writeUTF(companyClient.getCashierId());
+            } else {
+                out.writeByte(INDIVIDUAL_CLIENT);
+                writeUser(out, client);
+                out.writeUTF(((IndividualClient) client).getCashierId());
+            }
+        });
+    }
+
+    @Override
+    public void clientRemoved(String clientId) {
+        append(CLIENT_REMOVED, out -> out.writeUTF(clientId));
+    }
+
+    @Override
+    public void cashierAdded(Cashier cashier) {
+        append(CASHIER_ADDED, out -> writeUser(out, cashier));
+    }
+
+    @Override
+    public void cashierRemoved(String cashierId) {
+        append(CASHIER_REMOVED, out -> out.writeUTF(cashierId));
+    }
+
+    @Override
+    public void ticketCreated(String ticketId, String cashierId, String clientId, TicketPrintType printType) {
+        append(TICKET_CREATED, out -> {
+            out.writeUTF(ticketId);
+            out.writeUTF(cashierId);
+            out.writeUTF(clientId);
+            out.writeByte(printType.ordinal());
+        });
+    }
+
+    @Override
+    public void ticketLineAdded(String ticketId, String cashierId, String productId, int amount, List<String> customTexts) {
+        append(TICKET_LINE_ADDED, out -> {
+            out.writeUTF(ticketId);
+            out.writeUTF(cashierId);
+            out.writeUTF(productId);
+            out.writeInt(amount);
+            // Count is stored +1 so that 0 keeps meaning "no list".
+            out.writeInt(customTexts == null ? 0 : customTexts.size() + 1);
+            if (customTexts != null) {
+                for (String text : customTexts) {
+                    out.writeUTF(text);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void ticketLineRemoved(String ticketId, String cashierId, String productId) {
+        append(TICKET_LINE_REMOVED, out -> {
+            out.writeUTF(ticketId);
+            out.writeUTF(cashierId);
+            out.writeUTF(productId);
+        });
+    }
+
+    @Override
+    public void ticketPrinted(String ticketId, String cashierId, String finalId) {
+        append(TICKET_PRINTED, out -> {
+            out.writeUTF(ticketId);
+            out.writeUTF(cashierId);
+            out.writeUTF(finalId);
+        });
+    }
+
+    private static void writeUser(DataOutput out, User user) throws IOException {
+        out.writeUTF(user.getId());
+        out.writeUTF(user.getName());
+        out.writeUTF(user.getEmail());
+    }
+
+    // ------------------------------------------------------------------ Group commit
+
+    private void append(byte type, RecordWriter writer) throws PersistenceException {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new PersistenceException("Journal is closed.", failure);
+            }
+            long sequence = appendedSequence + 1;
+            try {
+                record.reset();
+                recordOut.writeLong(sequence);
+                recordOut.writeByte(type);
+                writer.write(recordOut);
+            } catch (IOException e) {
+                throw new PersistenceException("Failed to journal change: " + e.getMessage(), e);
+            }
+            crc.reset();
+            crc.update(record.array(), 0, record.size());
+            pending.writeInt(record.size());
+            pending.write(record.array(), 0, record.size());
+            pending.writeInt((int) crc.getValue());
+            appendedSequence = sequence;
+            recordsSinceCheckpoint++;
+            changed.signalAll();
+
+            // Durability: Return only once the flusher has forced this frame.
+            awaitDurable(sequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitDurable(long sequence) throws PersistenceException {
+        boolean interrupted = false;
+        while (durableSequence < sequence && failure == null) {
+            try {
+                changed.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (durableSequence < sequence) {
+            throw new PersistenceException("Failed to journal change: " + failure.getMessage(), failure);
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            FrameBuffer batch;
+            long batchEnd;
+            FileChannel target;
+            lock.lock();
+            try {
+                while (pending.size() == 0 && !closed) {
+                    try {
+                        changed.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.size() == 0) {
+                    return;
+                }
+                batch = pending;
+                pending = spare;
+                spare = batch;
+                batchEnd = appendedSequence;
+                target = channel;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                ByteBuffer bytes = ByteBuffer.wrap(batch.array(), 0, batch.size());
+                while (bytes.hasRemaining()) {
+                    target.write(bytes);
+                }
+                target.force(false);
+            } catch (IOException e) {
+                lock.lock();
+                try {
+                    failure = e;
+                    closed = true;
+                    changed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+            lock.lock();
+            try {
+                batch.reset();
+                durableSequence = batchEnd;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------ Checkpoints
+
+    public long getLastSequence() {
+        lock.lock();
+        try {
+            return appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getRecordsSinceCheckpoint() {
+        lock.lock();
+        try {
+            return recordsSinceCheckpoint;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Checkpoint: Move the live journal aside and start a fresh one. The sealed file
+    // stays until the snapshot covering it is durable (see discardSealed).
+    public long seal() throws IOException {
+        lock.lock();
+        try {
+            awaitDurable(appendedSequence);
+            channel.close();
+            Files.move(path, sealedPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = openChannel(path);
+            recordsSinceCheckpoint = 0;
+            return appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void discardSealed() throws IOException {
+        Files.deleteIfExists(sealedPath);
+    }
+
+    // Shutdown: Stop the flusher; with discard, drop the files (a full snapshot was just written).
+    public void close(boolean discard) throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (discard) {
+            Files.deleteIfExists(path);
+            discardSealed();
+        }
+    }
+
+    // ------------------------------------------------------------------ Replay
+
+    // Recovery: Apply records newer than the snapshot; stops at the first torn/corrupt frame.
+    public static long replay(Path path, Store store, long afterSequence, SnapshotCodec codec) throws IOException {
+        long lastSequence = afterSequence;
+        if (!Files.exists(path)) {
+            return lastSequence;
+        }
+        CRC32 checksum = new CRC32();
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file, 64 * 1024))) {
+            while (true) {
+                byte[] frame;
+                int storedCrc;
+                try {
+                    int length = in.readInt();
+                    if (length <= 0 || length > MAX_RECORD_SIZE) {
+                        System.err.println("Warning: Journal " + path + " has a corrupt frame; replay stopped.");
+                        break;
+                    }
+                    frame = new byte[length];
+                    in.readFully(frame);
+                    storedCrc = in.readInt();
+                } catch (EOFException e) {
+                    // End of journal, or a frame cut short by a crash.
+                    break;
+                }
+                checksum.reset();
+                checksum.update(frame, 0, frame.length);
+                if ((int) checksum.getValue() != storedCrc) {
+                    System.err.println("Warning: Journal " + path + " has a corrupt frame; replay stopped.");
+                    break;
+                }
+                DataInputStream record = new DataInputStream(new ByteArrayInputStream(frame));
+                long sequence = record.readLong();
+                if (sequence <= lastSequence) {
+                    continue;
+                }
+                byte type = record.readByte();
+                try {
+                    apply(type, record, store, codec);
+                } catch (UPMStoreDomainException | IllegalArgumentException e) {
+                    System.err.println("Warning: Journal record " + sequence + " could not be replayed: " + e.getMessage());
+                }
+                lastSequence = sequence;
+            }
+        }
+        return lastSequence;
+    }
+
+    private static void apply(byte type, DataInput in, Store store, SnapshotCodec codec) throws IOException {
+        switch (type) {
+            case PRODUCT_ADDED -> store.addProduct(codec.readProduct(in));
+            case PRODUCT_UPDATED -> store.updateProduct(in.readUTF(), in.readUTF(), in.readUTF());
+            case PRODUCT_REMOVED -> store.removeProduct(in.readUTF());
+            case CLIENT_ADDED -> {
+                byte kind = in.readByte();
+                String id = in.readUTF();
+                String name = in.readUTF();
+                String email = in.readUTF();
+                String cashierId = in.readUTF();
+                store.addClient((kind == COMPANY_CLIENT)
+                        ? new CompanyClient(id, name, email, cashierId)
+                        : new IndividualClient(id, name, email, cashierId));
+            }
+            case CLIENT_REMOVED -> store.removeClient(in.readUTF());
+            case CASHIER_ADDED -> store.addCashier(new Cashier(in.readUTF(), in.readUTF(), in.readUTF()));
+            case CASHIER_REMOVED -> store.removeCashier(in.readUTF());
+            case TICKET_CREATED -> {
+                String ticketId = in.readUTF();
+                String cashierId = in.readUTF();
+                String clientId = in.readUTF();
+                store.createTicket(ticketId, cashierId, clientId, TicketPrintType.values()[in.readUnsignedByte()]);
+            }
+            case TICKET_LINE_ADDED -> {
+                String ticketId = in.readUTF();
+                String cashierId = in.readUTF();
+                String productId = in.readUTF();
+                int amount = in.readInt();
+                int textCount = in.readInt();
+                List<String> customTexts = null;
+                if (textCount > 0) {
+                    customTexts = new ArrayList<>(textCount - 1);
+                    for (int i = 1; i < textCount; i++) {
+                        customTexts.add(in.readUTF());
+                    }
+                }
+                store.addProductToTicket(ticketId, cashierId, productId, amount, customTexts);
+            }
+            case TICKET_LINE_REMOVED -> store.removeProductFromTicket(in.readUTF(), in.readUTF(), in.readUTF());
+            case TICKET_PRINTED -> store.closeTicket(in.readUTF(), in.readUTF(), in.readUTF());
+            default -> throw new IOException("Corrupt journal: unknown record type " + type);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutput out) throws IOException;
+    }
+
+    // Buffer: Exposes its backing array so frames are checksummed and written without copies.
+    private static final class FrameBuffer extends ByteArrayOutputStream {
+        byte[] array() {
+            return buf;
+        }
+
+        void writeInt(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+    }
+}
@@ -2,39 +2,381 @@ package es.upm.etsisi.poo.infrastructure.persistence;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.io.DataOutputStream;
+import java.util.concurrent.Future;
+import java.io.BufferedOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import es.upm.etsisi.poo.application.Store;
+import es.upm.etsisi.poo.application.TicketArchive;
+import es.upm.etsisi.poo.domain.product.Catalog;
 import es.upm.etsisi.poo.domain.exceptions.PersistenceException;
+import es.upm.etsisi.poo.domain.exceptions.UPMStoreDomainException;
+import es.upm.etsisi.poo.infrastructure.monitoring.SnapshotLoadEvent;
+import es.upm.etsisi.poo.infrastructure.monitoring.SnapshotSaveEvent;
+import es.upm.etsisi.poo.infrastructure.monitoring.CheckpointCaptureEvent;
+import es.upm.etsisi.poo.infrastructure.persistence.legacy.LegacyObjectInputStream;
 
 // [Class] Saves/Loads data to a file.
+// Snapshot (store_data.dat) + write-ahead journal (store_journal.log) of changes made since,
+// with CLOSED tickets moved out to the ticket archive (store_archive/) at every checkpoint.
 public class FilePersistenceHandler {
     private static final String FILE_NAME = "store_data.dat";
+    private static final String JOURNAL_NAME = "store_journal.log";
+    private static final String ARCHIVE_DIRECTORY = "store_archive";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 1000;    // Journal records between checkpoints
+    public static final int DEFAULT_CHECKPOINT_SECONDS = 60;       // ...or seconds, whichever comes first
+
+    private final SnapshotCodec codec = new SnapshotCodec();
+    private final SnapshotCodec checkpointCodec = new SnapshotCodec();   // Checkpoint thread only.
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final Path archiveDirectory;
+    private final int checkpointInterval;
+    private final long checkpointNanos;
+    private final ExecutorService checkpointer;
+    private final ReentrantLock checkpointLock = new ReentrantLock();  // Not a monitor: no virtual-thread pinning.
+    private CommandJournal journal;
+    private Future<?> checkpoint;
+    private long lastCheckpoint = System.nanoTime();
+    private boolean adoptArchived;      // Migration: Loaded snapshot predates archived-ID lists.
+    private int maxProducts = Catalog.DEFAULT_MAX_PRODUCTS;
+    private volatile TicketArchive archive;
+    // Safety: Set while the snapshot on disk could not be loaded. Nothing may replace it (nor
+    // consume the journal written against it) until it is read or moved aside by hand.
+    private volatile boolean snapshotUnreadable;
+
+    public FilePersistenceHandler() {
+        this(DEFAULT_CHECKPOINT_INTERVAL, DEFAULT_CHECKPOINT_SECONDS);
+    }
+
+    public FilePersistenceHandler(int checkpointInterval, int checkpointSeconds) {
+        this(Path.of(""), checkpointInterval, checkpointSeconds);
+    }
+
+    // Config: Snapshot, journal and archive live under 'directory' (default: working directory).
+    public FilePersistenceHandler(Path directory, int checkpointInterval, int checkpointSeconds) {
+        if (checkpointInterval <= 0 || checkpointSeconds <= 0) {
+            throw new IllegalArgumentException("Error: Checkpoint interval must be greater than 0.");
+        }
+        this.snapshotPath = directory.resolve(FILE_NAME);
+        this.journalPath = directory.resolve(JOURNAL_NAME);
+        this.archiveDirectory = directory.resolve(ARCHIVE_DIRECTORY);
+        this.checkpointInterval = checkpointInterval;
+        this.checkpointNanos = TimeUnit.SECONDS.toNanos(checkpointSeconds);
+        this.checkpointer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "snapshot-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 
     public void save(Store store) throws PersistenceException {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(FILE_NAME))) {
-            oos.writeObject(store);
+        // Check: Deferred tickets still live in the mapped file we are about to replace.
+        store.loadTickets();
+        checkpointLock.lock();
+        try {
+            awaitCheckpoint();
+            saveExclusive(store);
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    private void saveExclusive(Store store) throws PersistenceException {
+        SnapshotSaveEvent event = new SnapshotSaveEvent();
+        event.begin();
+        Lock exclusive = store.exclusiveLock();
+        exclusive.lock();
+        try {
+            store.archiveClosedTickets();
+            if (journal != null) {
+                store.setJournalSequence(journal.getLastSequence());
+            }
+            StoreImage image = codec.capture(store);
+            writeSnapshot(out -> codec.encode(image, out));
+            commit(event, image, false);
             System.out.println("System state saved successfully.");
+            // Logic: The full snapshot covers every journaled change.
+            if (journal != null) {
+                journal.close(true);
+                journal = null;
+                store.setJournal(null);
+            }
         } catch (IOException e) {
             throw new PersistenceException("Failed to save data: " + e.getMessage(), e);
+        } finally {
+            exclusive.unlock();
+        }
+    }
+
+    // Archive: Attach the closed-ticket archive; must happen before the journal is replayed.
+    public void openArchive(Store store) throws PersistenceException {
+        try {
+            archive = new SegmentTicketArchive(archiveDirectory, codec);
+            store.setArchive(archive);
+            if (adoptArchived) {
+                store.adoptArchivedTickets();
+                adoptArchived = false;
+            }
+        } catch (IOException e) {
+            throw new PersistenceException("Error opening ticket archive: " + e.getMessage(), e);
+        }
+    }
+
+    // Recovery: Replay what the last run journaled after its snapshot, then journal from here on.
+    public void openJournal(Store store) throws PersistenceException {
+        if (snapshotUnreadable) {
+            throw new PersistenceException("Journal left untouched: " + snapshotPath + " could not be loaded.");
+        }
+        Path sealedPath = CommandJournal.sealedPath(journalPath);
+        try {
+            long snapshotSequence = store.getJournalSequence();
+            long sequence = replaySealed(sealedPath, store, snapshotSequence, codec);
+            sequence = CommandJournal.replay(journalPath, store, sequence, codec);
+            if (sequence > snapshotSequence) {
+                System.out.println("Recovered " + (sequence - snapshotSequence) + " journaled changes.");
+                // Logic: Fold the replayed records into a fresh snapshot so the journal restarts empty.
+                store.loadTickets();
+                store.setJournalSequence(sequence);
+                writeSnapshot(out -> codec.encode(store, out));
+            }
+            Files.deleteIfExists(sealedPath);
+            Files.deleteIfExists(journalPath);
+            journal = new CommandJournal(journalPath, sequence, codec);
+            store.setJournal(journal);
+        } catch (IOException e) {
+            throw new PersistenceException("Error opening journal: " + e.getMessage(), e);
         }
     }
 
+    // Checkpoint: Every N journal records or T seconds, fold the journal into the snapshot.
+    // The tills are held only while the closed tickets are archived and the journal is sealed.
+    // The new snapshot is the last one plus the sealed journal, rebuilt on the checkpoint thread
+    // (the state recovery would reach), so the live Store is never walked or copied.
+    // Concurrency: A till finding another one already checking simply moves on.
+    public void checkpointIfDue(Store store) throws PersistenceException {
+        if (!checkpointLock.tryLock()) {
+            return;
+        }
+        try {
+            checkpointLocked(store);
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    private void checkpointLocked(Store store) throws PersistenceException {
+        if (journal == null) {
+            return;
+        }
+        int records = journal.getRecordsSinceCheckpoint();
+        boolean due = records >= checkpointInterval
+                || (records > 0 && System.nanoTime() - lastCheckpoint >= checkpointNanos);
+        if (!due) {
+            return;
+        }
+        // Check: One checkpoint at a time; a sealed journal left by a failed one is kept until exit.
+        if ((checkpoint != null && !checkpoint.isDone()) || Files.exists(CommandJournal.sealedPath(journalPath))) {
+            return;
+        }
+        // Check: Deferred tickets still live in the mapped file the checkpoint replaces.
+        store.loadTickets();
+        long sequence;
+        CheckpointCaptureEvent capture = new CheckpointCaptureEvent();
+        capture.begin();
+        Lock exclusive = store.exclusiveLock();
+        exclusive.lock();
+        try {
+            // Archive: Durable in the archive before the snapshot that no longer holds them.
+            store.archiveClosedTickets();
+            sequence = journal.seal();
+            store.setJournalSequence(sequence);
+            if (capture.shouldCommit()) {
+                capture.records = records;
+                capture.sequence = sequence;
+                capture.commit();
+            }
+        } catch (IOException e) {
+            throw new PersistenceException("Checkpoint failed: " + e.getMessage(), e);
+        } finally {
+            exclusive.unlock();
+        }
+        lastCheckpoint = System.nanoTime();
+        CommandJournal sealedJournal = journal;
+        checkpoint = checkpointer.submit(() -> {
+            SnapshotSaveEvent event = new SnapshotSaveEvent();
+            event.begin();
+            try {
+                StoreImage image = checkpointCodec.capture(rebuild(sequence));
+                writeSnapshot(out -> checkpointCodec.encode(image, out));
+                commit(event, image, true);
+                sealedJournal.discardSealed();
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Warning: Checkpoint failed (" + e.getMessage() + "). Journal kept for recovery.");
+            }
+        });
+    }
+
+    // Checkpoint: Private Store from the snapshot on disk plus the sealed journal up to 'sequence'.
+    private Store rebuild(long sequence) throws IOException {
+        Store base = new Store(maxProducts);
+        boolean adopt = false;
+        if (Files.exists(snapshotPath)) {
+            MappedByteBuffer buffer = map(snapshotPath);
+            boolean legacy = isLegacy(buffer);
+            base = legacy ? loadLegacy(new MappedInputStream(buffer), maxProducts) : checkpointCodec.decode(buffer, maxProducts);
+            adopt = !legacy && !SnapshotCodec.listsArchivedIds(buffer);
+        }
+        base.loadTickets();
+        replaySealed(CommandJournal.sealedPath(journalPath), base, base.getJournalSequence(), checkpointCodec);
+        if (adopt) {
+            base.adoptArchivedTickets();
+        }
+        base.setJournalSequence(sequence);
+        return base;
+    }
+
+    // Archive: The sealed journal ran before its checkpoint archived the tickets it closed, so it
+    // is replayed without the archive (which would refuse their IDs), then those tickets move out.
+    private long replaySealed(Path sealedPath, Store store, long afterSequence, SnapshotCodec with) throws IOException {
+        if (!Files.exists(sealedPath)) {
+            return afterSequence;
+        }
+        store.setArchive(null);
+        long sequence;
+        try {
+            sequence = CommandJournal.replay(sealedPath, store, afterSequence, with);
+        } finally {
+            store.setArchive(archive);
+        }
+        store.releaseArchivedTickets();
+        return sequence;
+    }
+
+    private void awaitCheckpoint() {
+        if (checkpoint == null) {
+            return;
+        }
+        try {
+            checkpoint.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Warning: Checkpoint failed (" + e.getCause().getMessage() + ").");
+        }
+    }
+
+    // Persistence: Write to a temp file, force it, then atomically replace the snapshot.
+    private void writeSnapshot(SnapshotWriter writer) throws IOException {
+        Path target = snapshotPath;
+        if (snapshotUnreadable) {
+            throw new IOException("Refusing to overwrite " + target + ", which could not be loaded. Move it aside to start over.");
+        }
+        Path temp = target.resolveSibling(FILE_NAME + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+            writer.write(out);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void commit(SnapshotSaveEvent event, StoreImage image, boolean checkpoint) throws IOException {
+        if (event.shouldCommit()) {
+            event.path = snapshotPath.toString();
+            event.checkpoint = checkpoint;
+            event.size = Files.size(snapshotPath);
+            event.products = image.catalogSize;
+            event.tickets = image.repositorySize;
+            event.commit();
+        }
+    }
+
+    @FunctionalInterface
+    private interface SnapshotWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
     public Store load() throws PersistenceException {
-        File file = new File(FILE_NAME);
+        return load(Catalog.DEFAULT_MAX_PRODUCTS);
+    }
+
+    public Store load(int maxProducts) throws PersistenceException {
+        this.maxProducts = maxProducts;     // Checkpoints rebuild with the same capacity.
+        File file = snapshotPath.toFile();
         if (!file.exists()) {
             // If file doesn't exist, create empty Store.
-            return new Store();
+            return new Store(maxProducts);
         }
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-            return (Store) ois.readObject();
+        SnapshotLoadEvent event = new SnapshotLoadEvent();
+        event.begin();
+        // Safety: Cleared only once the snapshot has been read in full.
+        snapshotUnreadable = true;
+        // Persistence: Map the snapshot; pages are faulted in as the codec touches them.
+        MappedByteBuffer buffer;
+        try {
+            buffer = map(file.toPath());
         } catch (IOException e) {
             throw new PersistenceException("Error loading state: " + e.getMessage(), e);
+        }
+        try {
+            boolean legacy = isLegacy(buffer);
+            Store store = legacy ? loadLegacy(new MappedInputStream(buffer), maxProducts) : codec.decode(buffer, maxProducts);
+            adoptArchived = !legacy && !SnapshotCodec.listsArchivedIds(buffer);
+            if (event.shouldCommit()) {
+                event.path = snapshotPath.toString();
+                event.size = buffer.capacity();
+                event.products = store.getProducts().size();
+                event.legacy = legacy;
+                event.commit();
+            }
+            snapshotUnreadable = false;
+            return store;
+        } catch (IOException e) {
+            throw new PersistenceException("Error loading state: " + e.getMessage(), e);
+        } catch (PersistenceException e) {
+            throw e;
+        } catch (UPMStoreDomainException | IllegalArgumentException | IndexOutOfBoundsException | ClassCastException e) {
+            throw new PersistenceException("Error loading state (corrupt snapshot): " + e.getMessage(), e);
+        }
+    }
+
+    private static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    // Migration: Files written before the binary format are still Java-serialized.
+    private static boolean isLegacy(ByteBuffer buffer) {
+        return buffer.remaining() < Integer.BYTES || buffer.getInt(0) != SnapshotCodec.MAGIC;
+    }
+
+    // Migration: Old classes are read into legacy twins that resolve to the current domain objects.
+    private Store loadLegacy(InputStream in, int maxProducts) throws IOException, PersistenceException {
+        try (LegacyObjectInputStream ois = new LegacyObjectInputStream(in, maxProducts)) {
+            return (Store) ois.readObject();
         } catch (ClassNotFoundException e) {
             throw new PersistenceException("Error loading state (class not found): " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package es.upm.etsisi.poo.infrastructure.persistence;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+// [Class] InputStream view over a (memory-mapped) ByteBuffer.
+// Reads come straight from the mapping: no heap copy of the file, pages fault in on demand.
+class MappedInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    MappedInputStream(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+        return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int count = Math.min(length, buffer.remaining());
+        buffer.get(bytes, offset, count);
+        return count;
+    }
+
+    @Override
+    public long skip(long n) {
+        int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+        buffer.position(buffer.position() + count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+}
@@ -0,0 +1,345 @@
+package es.upm.etsisi.poo.infrastructure.persistence;
+
+import java.util.Map;
+import java.util.List;
+import java.util.HashMap;
+import java.util.ArrayList;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.locks.ReentrantLock;
+
+import es.upm.etsisi.poo.domain.ticket.Ticket;
+import es.upm.etsisi.poo.application.TicketArchive;
+
+// [Class] Append-only, compressed archive of CLOSED tickets.
+// Segments: <dir>/tickets-<yyyy-MM>.seg, partitioned by archive month. Each block is
+//   int rawLength | int compressedLength | deflate(SnapshotCodec ticket block).
+// Index: <dir>/index.dat, one record per ticket: id, cashierId, clientId, segment, block offset.
+// Segments and index are only ever appended to; a later entry for the same ID wins.
+// Concurrency: ReentrantLocks, not monitors, so virtual-thread tills never pin their carrier on
+// archive I/O. 'lock' only guards the in-memory index and block cache (reordered on every read);
+// segment reads and inflation run outside it. 'appendLock' serializes archive(), which owns the
+// segment and index tails; readers never take it.
+public class SegmentTicketArchive implements TicketArchive {
+    private static final String INDEX_NAME = "index.dat";
+    private static final String SEGMENT_PREFIX = "tickets-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+    private static final int BLOCK_TICKETS = 256;       // Tickets per block: bounds the cost of one lookup.
+    private static final int CACHED_BLOCKS = 8;
+
+    private final Path directory;
+    private final SnapshotCodec codec;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    // Index: Ticket ID -> location and owners, in archive order.
+    private final Map<String, Entry> index = new LinkedHashMap<>();
+    // Cache: Recently inflated blocks, LRU.
+    private final Map<String, List<Ticket<?>>> blocks = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<Ticket<?>>> eldest) {
+            return size() > CACHED_BLOCKS;
+        }
+    };
+
+    public SegmentTicketArchive(Path directory, SnapshotCodec codec) throws IOException {
+        this.directory = directory;
+        this.codec = codec;
+        Files.createDirectories(directory);
+        loadIndex();
+    }
+
+    @Override
+    public void archive(List<Ticket<?>> closedTickets) throws IOException {
+        appendLock.lock();
+        try {
+            append(closedTickets);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void append(List<Ticket<?>> closedTickets) throws IOException {
+        String segment = SEGMENT_PREFIX + LocalDate.now().format(PARTITION_FORMAT) + SEGMENT_SUFFIX;
+        List<Entry> written = new ArrayList<>(closedTickets.size());
+        List<String> ids = new ArrayList<>(closedTickets.size());
+
+        // Persistence: Blocks first (forced), then the index records that point at them.
+        try (FileChannel channel = FileChannel.open(directory.resolve(segment),
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+            for (int from = 0; from < closedTickets.size(); from += BLOCK_TICKETS) {
+                List<Ticket<?>> batch = closedTickets.subList(from, Math.min(from + BLOCK_TICKETS, closedTickets.size()));
+                long offset = channel.size();
+                writeFully(channel, compressBlock(batch), offset);
+                for (Ticket<?> ticket : batch) {
+                    ids.add(ticket.getId());
+                    written.add(new Entry(ticket.getCashierId(), ticket.getClientId(), segment, offset));
+                }
+            }
+            channel.force(true);
+        }
+
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(records);
+        for (int i = 0; i < written.size(); i++) {
+            Entry entry = written.get(i);
+            out.writeUTF(ids.get(i));
+            out.writeUTF(entry.cashierId);
+            out.writeUTF(entry.clientId);
+            out.writeUTF(entry.segment);
+            out.writeLong(entry.offset);
+        }
+        out.flush();
+        try (FileChannel channel = FileChannel.open(directory.resolve(INDEX_NAME),
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            ByteBuffer bytes = ByteBuffer.wrap(records.toByteArray());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        }
+        // Logic: Published only once durable, so readers never reach a block still being written.
+        lock.lock();
+        try {
+            for (int i = 0; i < written.size(); i++) {
+                index.put(ids.get(i), written.get(i));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(String ticketId) {
+        lock.lock();
+        try {
+            return index.containsKey(ticketId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Ticket<?> find(String ticketId) throws IOException {
+        Entry entry;
+        lock.lock();
+        try {
+            entry = index.get(ticketId);
+        } finally {
+            lock.unlock();
+        }
+        if (entry == null) {
+            return null;
+        }
+        for (Ticket<?> ticket : readBlock(entry)) {
+            if (ticket.getId().equals(ticketId)) {
+                return ticket;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<Ticket<?>> findByCashier(String cashierId) throws IOException {
+        return collect(cashierId);
+    }
+
+    @Override
+    public List<Ticket<?>> findAll() throws IOException {
+        return collect(null);
+    }
+
+    // Concurrency: Visits a copy of the index, so lookups are not held up by the visitor.
+    @Override
+    public void forEachEntry(EntryVisitor visitor) {
+        List<Map.Entry<String, Entry>> entries;
+        lock.lock();
+        try {
+            entries = new ArrayList<>(index.entrySet());
+        } finally {
+            lock.unlock();
+        }
+        for (Map.Entry<String, Entry> indexed : entries) {
+            Entry entry = indexed.getValue();
+            visitor.visit(indexed.getKey(), entry.cashierId, entry.clientId);
+        }
+    }
+
+    // Search: Owners come from the index, so only matching blocks are inflated (each once).
+    private List<Ticket<?>> collect(String cashierId) throws IOException {
+        List<Map.Entry<String, Entry>> matches = new ArrayList<>();
+        lock.lock();
+        try {
+            for (Map.Entry<String, Entry> indexed : index.entrySet()) {
+                if (cashierId == null || cashierId.equals(indexed.getValue().cashierId)) {
+                    matches.add(Map.entry(indexed.getKey(), indexed.getValue()));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        Map<String, Map<String, Ticket<?>>> byBlock = new HashMap<>();
+        List<Ticket<?>> result = new ArrayList<>();
+        for (Map.Entry<String, Entry> indexed : matches) {
+            Entry entry = indexed.getValue();
+            Map<String, Ticket<?>> block = byBlock.get(entry.blockKey());
+            if (block == null) {
+                block = new HashMap<>();
+                for (Ticket<?> ticket : readBlock(entry)) {
+                    block.put(ticket.getId(), ticket);
+                }
+                byBlock.put(entry.blockKey(), block);
+            }
+            Ticket<?> ticket = block.get(indexed.getKey());
+            if (ticket != null) {
+                result.add(ticket);
+            }
+        }
+        return result;
+    }
+
+    private byte[] compressBlock(List<Ticket<?>> batch) throws IOException {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(raw);
+        codec.writeTicketBlock(batch, out);
+        out.flush();
+        byte[] input = raw.toByteArray();
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(input.length / 2 + 16);
+            DataOutputStream header = new DataOutputStream(compressed);
+            header.writeInt(input.length);
+            header.writeInt(0);     // Patched below once the compressed size is known.
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(chunk);
+                compressed.write(chunk, 0, count);
+            }
+            byte[] block = compressed.toByteArray();
+            ByteBuffer.wrap(block).putInt(Integer.BYTES, block.length - 2 * Integer.BYTES);
+            return block;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // Cache: Two readers missing the same block both inflate it; the last one cached wins.
+    private List<Ticket<?>> readBlock(Entry entry) throws IOException {
+        List<Ticket<?>> cached;
+        lock.lock();
+        try {
+            cached = blocks.get(entry.blockKey());
+        } finally {
+            lock.unlock();
+        }
+        if (cached != null) {
+            return cached;
+        }
+        byte[] raw;
+        try (FileChannel channel = FileChannel.open(directory.resolve(entry.segment), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES);
+            readFully(channel, header, entry.offset);
+            header.flip();
+            raw = new byte[header.getInt()];
+            ByteBuffer compressed = ByteBuffer.allocate(header.getInt());
+            readFully(channel, compressed, entry.offset + 2 * Integer.BYTES);
+
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(compressed.array());
+                int filled = 0;
+                while (filled < raw.length && !inflater.finished()) {
+                    filled += inflater.inflate(raw, filled, raw.length - filled);
+                }
+                if (filled != raw.length) {
+                    throw new IOException("Corrupt archive block in " + entry.segment);
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt archive block in " + entry.segment + ": " + e.getMessage(), e);
+            } finally {
+                inflater.end();
+            }
+        }
+        List<Ticket<?>> tickets = codec.readTicketBlock(new DataInputStream(new ByteArrayInputStream(raw)));
+        lock.lock();
+        try {
+            blocks.put(entry.blockKey(), tickets);
+        } finally {
+            lock.unlock();
+        }
+        return tickets;
+    }
+
+    private void loadIndex() throws IOException {
+        Path indexPath = directory.resolve(INDEX_NAME);
+        if (!Files.exists(indexPath)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexPath)))) {
+            while (true) {
+                try {
+                    String id = in.readUTF();
+                    Entry entry = new Entry(in.readUTF(), in.readUTF(), in.readUTF(), in.readLong());
+                    index.put(id, entry);
+                } catch (EOFException e) {
+                    // End of index, or a record cut short by a crash.
+                    break;
+                }
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, byte[] bytes, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int count = channel.read(buffer, position);
+            if (count < 0) {
+                throw new EOFException("Archive block truncated");
+            }
+            position += count;
+        }
+    }
+
+    private static final class Entry {
+        final String cashierId;
+        final String clientId;
+        final String segment;
+        final long offset;
+
+        Entry(String cashierId, String clientId, String segment, long offset) {
+            this.cashierId = cashierId;
+            this.clientId = clientId;
+            this.segment = segment;
+            this.offset = offset;
+        }
+
+        String blockKey() {
+            return segment + '@' + offset;
+        }
+    }
+}
@@ -0,0 +1,675 @@
+package es.upm.etsisi.poo.infrastructure.persistence;
+
+import java.util.Map;
+import java.util.List;
+import java.util.HashMap;
+import java.util.ArrayList;
+import java.io.IOException;
+import java.io.DataInput;
+import java.nio.ByteBuffer;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.time.ZoneOffset;
+import java.time.LocalDateTime;
+import java.util.WeakHashMap;
+import java.util.IdentityHashMap;
+
+import es.upm.etsisi.poo.application.Store;
+import es.upm.etsisi.poo.domain.money.Money;
+import es.upm.etsisi.poo.domain.user.*;
+import es.upm.etsisi.poo.domain.ticket.*;
+import es.upm.etsisi.poo.domain.product.*;
+import es.upm.etsisi.poo.domain.printing.PrintStrategy;
+import es.upm.etsisi.poo.infrastructure.printing.*;
+import es.upm.etsisi.poo.infrastructure.persistence.StoreImage.*;
+
+// [Class] Versioned binary snapshot of the Store (replaces Java serialization).
+// Layout (v4): header | products | cashiers | clients | tickets. Strings go through a
+// streaming string table: each distinct ID/name is written once, then referenced by index.
+// Tickets come last so a loader can stop before them and read them only when first needed.
+public class SnapshotCodec {
+    public static final int MAGIC = 0x55504D53;    // "UPMS"
+    public static final short VERSION = 4;
+    private static final short VERSION_TICKETS_FIRST = 1;     // v1: header | products | tickets | cashiers | clients
+    private static final short VERSION_NO_JOURNAL = 2;        // v2: header has no journal sequence
+    private static final short VERSION_NO_ARCHIVED_IDS = 3;   // v3: users list no archived ticket IDs
+
+    // Tags: Product kinds.
+    private static final byte STANDARD_PRODUCT = 1;
+    private static final byte CUSTOMIZABLE_PRODUCT = 2;
+    private static final byte EVENT_PRODUCT = 3;
+    private static final byte SERVICE = 4;
+
+    // Tags: Ticket kinds and print strategies.
+    private static final byte COMMON_TICKET = 1;
+    private static final byte COMPANY_TICKET = 2;
+    private static final byte NO_STRATEGY = 0;
+    private static final byte STANDARD_STRATEGY = 1;
+    private static final byte COMPANY_STRATEGY = 2;
+    private static final byte SERVICE_STRATEGY = 3;
+
+    // Tags: Client kinds.
+    private static final byte INDIVIDUAL_CLIENT = 1;
+    private static final byte COMPANY_CLIENT = 2;
+
+    private static final int NULL_ORDINAL = 0;
+
+    // ------------------------------------------------------------------ Capture
+
+    // Cache: Images of CLOSED tickets, reused by every later capture (weak: removed tickets drop out).
+    private final Map<Ticket<?>, TicketImage> closedTickets = new WeakHashMap<>();
+
+    // Capture: Must run on the thread that owns the Store, between commands. Cost is a
+    // reference walk plus copies of products, users and open tickets; no encoding.
+    public StoreImage capture(Store store) {
+        // Products: Catalog first (keeps 'prod list' order), then products only referenced by tickets.
+        Catalog catalog = store.getCatalog();
+        List<Product> catalogProducts = catalog.getProducts();
+        Map<Product, Integer> productIndex = new IdentityHashMap<>();
+        List<ProductImage> products = new ArrayList<>(catalogProducts.size());
+        for (Product product : catalogProducts) {
+            productIndex.put(product, products.size());
+            products.add(captureProduct(product));
+        }
+
+        // Tickets: Repository first, then tickets only held by cashiers/clients.
+        List<Ticket<?>> repositoryTickets = store.getTickets();
+        List<Cashier> cashiers = store.getCashiers();
+        List<Client> clients = store.getClients();
+        Map<Ticket<?>, Integer> ticketIndex = new IdentityHashMap<>();
+        List<TicketImage> tickets = new ArrayList<>(repositoryTickets.size());
+        collectTickets(repositoryTickets, tickets, ticketIndex);
+        for (Cashier cashier : cashiers) {
+            collectTickets(cashier.getTickets(), tickets, ticketIndex);
+        }
+        for (Client client : clients) {
+            collectTickets(client.getTickets(), tickets, ticketIndex);
+        }
+        for (TicketImage ticket : tickets) {
+            for (LineImage line : ticket.lines) {
+                if (!productIndex.containsKey(line.product)) {
+                    productIndex.put(line.product, products.size());
+                    products.add(captureProduct(line.product));
+                }
+            }
+        }
+
+        UserImage[] cashierImages = new UserImage[cashiers.size()];
+        for (int i = 0; i < cashierImages.length; i++) {
+            Cashier cashier = cashiers.get(i);
+            cashierImages[i] = new UserImage((byte) 0, cashier.getId(), cashier.getName(), cashier.getEmail(), null,
+                    ticketRefs(cashier.getTickets(), ticketIndex), cashier.getArchivedTicketIds());
+        }
+        UserImage[] clientImages = new UserImage[clients.size()];
+        for (int i = 0; i < clientImages.length; i++) {
+            Client client = clients.get(i);
+            boolean company = client instanceof CompanyClient;
+            String cashierId = company ? ((CompanyClient) client).getCashierId() : ((IndividualClient) client).getCashierId();
+            clientImages[i] = new UserImage(company ? COMPANY_CLIENT : INDIVIDUAL_CLIENT, client.getId(), client.getName(),
+                    client.getEmail(), cashierId, ticketRefs(client.getTickets(), ticketIndex), client.getArchivedTicketIds());
+        }
+
+        return new StoreImage(store.getJournalSequence(), catalog.getMaxProducts(), catalogProducts.size(),
+                products.toArray(new ProductImage[0]), productIndex, cashierImages, clientImages,
+                repositoryTickets.size(), tickets.toArray(new TicketImage[0]));
+    }
+
+    private void collectTickets(List<Ticket<?>> source, List<TicketImage> tickets, Map<Ticket<?>, Integer> ticketIndex) {
+        for (Ticket<?> ticket : source) {
+            if (!ticketIndex.containsKey(ticket)) {
+                ticketIndex.put(ticket, tickets.size());
+                tickets.add(captureTicket(ticket));
+            }
+        }
+    }
+
+    private int[] ticketRefs(List<Ticket<?>> owned, Map<Ticket<?>, Integer> ticketIndex) {
+        int[] refs = new int[owned.size()];
+        for (int i = 0; i < refs.length; i++) {
+            refs[i] = ticketIndex.get(owned.get(i));
+        }
+        return refs;
+    }
+
+    private ProductImage captureProduct(Product product) {
+        long cents = product.getPrice().getCents();
+        if (product instanceof Service service) {
+            return new ProductImage(SERVICE, service.getId(), null, null, cents, service.getExpirationDate(),
+                    0, null, service.getServiceType(), 0);
+        }
+        if (product instanceof EventProduct event) {
+            return new ProductImage(EVENT_PRODUCT, event.getId(), event.getName(), null, cents, event.getExpirationDate(),
+                    event.getMaxParticipants(), event.getType(), null, 0);
+        }
+        if (product instanceof CustomizableProduct customizable) {
+            return new ProductImage(CUSTOMIZABLE_PRODUCT, product.getId(), product.getName(), product.getCategory(), cents,
+                    null, 0, null, null, customizable.getMaxCustomizableTexts());
+        }
+        if (product instanceof StandardProduct) {
+            return new ProductImage(STANDARD_PRODUCT, product.getId(), product.getName(), product.getCategory(), cents,
+                    null, 0, null, null, 0);
+        }
+        throw new IllegalArgumentException("Unsupported product type: " + product.getClass().getSimpleName());
+    }
+
+    private TicketImage captureTicket(Ticket<?> ticket) {
+        boolean closed = ticket.getState() == TicketState.CLOSED;
+        if (closed) {
+            TicketImage cached = closedTickets.get(ticket);
+            // Check: A re-print renames a closed ticket, so the ID must still match.
+            if (cached != null && cached.id.equals(ticket.getId())) {
+                return cached;
+            }
+        }
+        List<? extends TicketLine<?>> lines = ticket.getLines();
+        LineImage[] lineImages = new LineImage[lines.size()];
+        for (int i = 0; i < lineImages.length; i++) {
+            TicketLine<?> line = lines.get(i);
+            List<String> customTexts = line.getCustomTexts();
+            lineImages[i] = new LineImage(line.getProduct(), line.getQuantity(),
+                    customTexts == null ? null : List.copyOf(customTexts));
+        }
+        boolean company = ticket instanceof CompanyTicket;
+        TicketImage image = new TicketImage(company ? COMPANY_TICKET : COMMON_TICKET,
+                company ? ((CompanyTicket) ticket).getPrintType() : null, strategyTag(ticket.getPrintStrategy()),
+                ticket.getId(), ticket.getState(), ticket.getCashierId(), ticket.getClientId(), lineImages);
+        if (closed) {
+            closedTickets.put(ticket, image);
+        }
+        return image;
+    }
+
+    private byte strategyTag(PrintStrategy strategy) {
+        if (strategy == null) {
+            return NO_STRATEGY;
+        }
+        if (strategy instanceof CompanyPrintStrategy) {
+            return COMPANY_STRATEGY;
+        }
+        if (strategy instanceof ServicePrintStrategy) {
+            return SERVICE_STRATEGY;
+        }
+        return STANDARD_STRATEGY;
+    }
+
+    // ------------------------------------------------------------------ Encoding
+
+    public void encode(Store store, DataOutput out) throws IOException {
+        encode(capture(store), out);
+    }
+
+    // Encode: Touches only the image, so it is safe on a background thread.
+    public void encode(StoreImage image, DataOutput out) throws IOException {
+        StringTableWriter strings = new StringTableWriter(out);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        writeVarLong(out, image.journalSequence);
+
+        writeVarInt(out, image.maxProducts);
+        writeVarInt(out, image.catalogSize);
+        writeVarInt(out, image.products.length);
+        for (ProductImage product : image.products) {
+            writeProduct(product, out, strings);
+        }
+
+        writeVarInt(out, image.cashiers.length);
+        for (UserImage cashier : image.cashiers) {
+            writeUser(cashier, strings);
+            writeTicketRefs(cashier.tickets, out);
+            writeArchivedIds(cashier.archivedTickets, out, strings);
+        }
+
+        writeVarInt(out, image.clients.length);
+        for (UserImage client : image.clients) {
+            out.writeByte(client.kind);
+            writeUser(client, strings);
+            strings.write(client.cashierId);
+            writeTicketRefs(client.tickets, out);
+            writeArchivedIds(client.archivedTickets, out, strings);
+        }
+
+        writeVarInt(out, image.repositorySize);
+        writeVarInt(out, image.tickets.length);
+        for (TicketImage ticket : image.tickets) {
+            writeTicket(ticket, image.productIndex, out, strings);
+        }
+    }
+
+    // Archive: Self-contained block of tickets plus the products their lines reference.
+    void writeTicketBlock(List<Ticket<?>> tickets, DataOutput out) throws IOException {
+        StringTableWriter strings = new StringTableWriter(out);
+        Map<Product, Integer> productIndex = new IdentityHashMap<>();
+        List<ProductImage> products = new ArrayList<>();
+        List<TicketImage> images = new ArrayList<>(tickets.size());
+        for (Ticket<?> ticket : tickets) {
+            TicketImage image = captureTicket(ticket);
+            images.add(image);
+            for (LineImage line : image.lines) {
+                if (!productIndex.containsKey(line.product)) {
+                    productIndex.put(line.product, products.size());
+                    products.add(captureProduct(line.product));
+                }
+            }
+        }
+        writeVarInt(out, products.size());
+        for (ProductImage product : products) {
+            writeProduct(product, out, strings);
+        }
+        writeVarInt(out, images.size());
+        for (TicketImage image : images) {
+            writeTicket(image, productIndex, out, strings);
+        }
+    }
+
+    // Journal: Standalone product record with its own string table.
+    void writeProduct(Product product, DataOutput out) throws IOException {
+        writeProduct(captureProduct(product), out, new StringTableWriter(out));
+    }
+
+    private void writeProduct(ProductImage product, DataOutput out, StringTableWriter strings) throws IOException {
+        out.writeByte(product.kind);
+        strings.write(product.id);
+        switch (product.kind) {
+            case SERVICE -> {
+                writeDateTime(out, product.expirationDate);
+                out.writeByte(product.serviceType.ordinal());
+            }
+            case EVENT_PRODUCT -> {
+                strings.write(product.name);
+                writeVarLong(out, product.priceCents);
+                writeDateTime(out, product.expirationDate);
+                writeVarInt(out, product.maxParticipants);
+                out.writeByte(product.eventType.ordinal());
+            }
+            default -> {
+                strings.write(product.name);
+                out.writeByte(product.category == null ? NULL_ORDINAL : product.category.ordinal() + 1);
+                writeVarLong(out, product.priceCents);
+                if (product.kind == CUSTOMIZABLE_PRODUCT) {
+                    writeVarInt(out, product.maxCustomizableTexts);
+                }
+            }
+        }
+    }
+
+    private void writeTicket(TicketImage ticket, Map<Product, Integer> productIndex, DataOutput out,
+            StringTableWriter strings) throws IOException {
+        out.writeByte(ticket.kind);
+        if (ticket.kind == COMPANY_TICKET) {
+            out.writeByte(ticket.printType.ordinal());
+        }
+        out.writeByte(ticket.strategy);
+        strings.write(ticket.id);
+        out.writeByte(ticket.state.ordinal());
+        strings.write(ticket.cashierId);
+        strings.write(ticket.clientId);
+
+        writeVarInt(out, ticket.lines.length);
+        for (LineImage line : ticket.lines) {
+            writeVarInt(out, productIndex.get(line.product));
+            writeVarInt(out, line.quantity);
+            if (line.customTexts == null) {
+                writeVarInt(out, 0);
+            } else {
+                // Count is stored +1 so that 0 keeps meaning "no list".
+                writeVarInt(out, line.customTexts.size() + 1);
+                for (String text : line.customTexts) {
+                    strings.write(text);
+                }
+            }
+        }
+    }
+
+    private void writeUser(UserImage user, StringTableWriter strings) throws IOException {
+        strings.write(user.id);
+        strings.write(user.name);
+        strings.write(user.email);
+    }
+
+    private void writeTicketRefs(int[] owned, DataOutput out) throws IOException {
+        writeVarInt(out, owned.length);
+        for (int ref : owned) {
+            writeVarInt(out, ref);
+        }
+    }
+
+    private void writeArchivedIds(List<String> archived, DataOutput out, StringTableWriter strings) throws IOException {
+        writeVarInt(out, archived.size());
+        for (String id : archived) {
+            strings.write(id);
+        }
+    }
+
+    // ------------------------------------------------------------------ Decoding
+
+    // Migration: Snapshots before v4 do not say which archived tickets each user owns.
+    static boolean listsArchivedIds(ByteBuffer buffer) {
+        return buffer.getShort(Integer.BYTES) > VERSION_NO_ARCHIVED_IDS;
+    }
+
+    // Decode: Reads in place from the (mapped) buffer. With a v2 snapshot only the
+    // catalog and users are built here; tickets are left to Store.loadTickets().
+    // Config: The catalog takes the larger of the configured and the saved capacity.
+    public Store decode(ByteBuffer buffer, int maxProducts) throws IOException {
+        DataInputStream in = new DataInputStream(new MappedInputStream(buffer));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a store snapshot");
+        }
+        short version = in.readShort();
+        if (version < VERSION_TICKETS_FIRST || version > VERSION) {
+            throw new IOException("Unsupported snapshot version: " + version);
+        }
+        long journalSequence = (version > VERSION_NO_JOURNAL) ? readVarLong(in) : 0L;
+        StringTableReader strings = new StringTableReader(in);
+
+        Catalog catalog = new Catalog(Math.max(maxProducts, readVarInt(in)));
+        int catalogSize = readVarInt(in);
+        Product[] products = new Product[readVarInt(in)];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = readProduct(in, strings);
+            if (i < catalogSize) {
+                catalog.addProduct(products[i]);
+            }
+        }
+
+        TicketRepository ticketRepository = new TicketRepository();
+        Ticket<?>[] eagerTickets = null;
+        if (version == VERSION_TICKETS_FIRST) {
+            eagerTickets = readTickets(in, strings, products, ticketRepository);
+        }
+
+        CashierRepository cashierRepository = new CashierRepository();
+        List<User> owners = new ArrayList<>();
+        List<int[]> ownedTickets = new ArrayList<>();
+        int cashierCount = readVarInt(in);
+        for (int i = 0; i < cashierCount; i++) {
+            Cashier cashier = new Cashier(strings.read(), strings.read(), strings.read());
+            owners.add(cashier);
+            ownedTickets.add(readTicketRefs(in));
+            if (version > VERSION_NO_ARCHIVED_IDS) {
+                for (String ticketId : readArchivedIds(in, strings)) {
+                    cashier.addArchivedTicket(ticketId);
+                }
+            }
+            cashierRepository.add(cashier);
+        }
+
+        ClientRepository clientRepository = new ClientRepository();
+        int clientCount = readVarInt(in);
+        for (int i = 0; i < clientCount; i++) {
+            byte kind = in.readByte();
+            String id = strings.read();
+            String name = strings.read();
+            String email = strings.read();
+            String cashierId = strings.read();
+            Client client = (kind == COMPANY_CLIENT)
+                    ? new CompanyClient(id, name, email, cashierId)
+                    : new IndividualClient(id, name, email, cashierId);
+            owners.add(client);
+            ownedTickets.add(readTicketRefs(in));
+            if (version > VERSION_NO_ARCHIVED_IDS) {
+                for (String ticketId : readArchivedIds(in, strings)) {
+                    client.addArchivedTicket(ticketId);
+                }
+            }
+            clientRepository.add(client);
+        }
+
+        Store store = new Store(catalog, ticketRepository, clientRepository, cashierRepository);
+        store.setJournalSequence(journalSequence);
+        if (eagerTickets != null) {
+            attachTickets(eagerTickets, owners, ownedTickets);
+        } else {
+            // Lazy: The stream stays parked at the tickets section until the store asks for it.
+            store.deferTickets(() -> attachTickets(readTickets(in, strings, products, ticketRepository), owners, ownedTickets));
+        }
+        return store;
+    }
+
+    private Ticket<?>[] readTickets(DataInput in, StringTableReader strings, Product[] products,
+            TicketRepository ticketRepository) throws IOException {
+        int repositorySize = readVarInt(in);
+        Ticket<?>[] tickets = new Ticket<?>[readVarInt(in)];
+        for (int i = 0; i < tickets.length; i++) {
+            tickets[i] = readTicket(in, strings, products);
+            if (i < repositorySize) {
+                ticketRepository.add(tickets[i]);
+            }
+        }
+        return tickets;
+    }
+
+    private int[] readTicketRefs(DataInput in) throws IOException {
+        int[] refs = new int[readVarInt(in)];
+        for (int i = 0; i < refs.length; i++) {
+            refs[i] = readVarInt(in);
+        }
+        return refs;
+    }
+
+    private String[] readArchivedIds(DataInput in, StringTableReader strings) throws IOException {
+        String[] ids = new String[readVarInt(in)];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = strings.read();
+        }
+        return ids;
+    }
+
+    private void attachTickets(Ticket<?>[] tickets, List<User> owners, List<int[]> ownedTickets) {
+        for (int i = 0; i < owners.size(); i++) {
+            User owner = owners.get(i);
+            for (int ref : ownedTickets.get(i)) {
+                if (owner instanceof Cashier cashier) {
+                    cashier.addTicket(tickets[ref]);
+                } else {
+                    ((Client) owner).addTicket(tickets[ref]);
+                }
+            }
+        }
+    }
+
+    List<Ticket<?>> readTicketBlock(DataInput in) throws IOException {
+        StringTableReader strings = new StringTableReader(in);
+        Product[] products = new Product[readVarInt(in)];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = readProduct(in, strings);
+        }
+        int count = readVarInt(in);
+        List<Ticket<?>> tickets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tickets.add(readTicket(in, strings, products));
+        }
+        return tickets;
+    }
+
+    // Journal: Standalone product record with its own string table.
+    Product readProduct(DataInput in) throws IOException {
+        return readProduct(in, new StringTableReader(in));
+    }
+
+    private Product readProduct(DataInput in, StringTableReader strings) throws IOException {
+        byte kind = in.readByte();
+        switch (kind) {
+            case SERVICE -> {
+                String id = strings.read();
+                LocalDateTime expiration = readDateTime(in);
+                return new Service(id, expiration, ServiceType.values()[in.readUnsignedByte()]);
+            }
+            case EVENT_PRODUCT -> {
+                String id = strings.read();
+                String name = strings.read();
+                Money price = Money.ofCents(readVarLong(in));
+                LocalDateTime expiration = readDateTime(in);
+                int maxParticipants = readVarInt(in);
+                return new EventProduct(id, name, price, expiration, maxParticipants, EventType.values()[in.readUnsignedByte()]);
+            }
+            case CUSTOMIZABLE_PRODUCT -> {
+                String id = strings.read();
+                String name = strings.read();
+                ProductCategory category = readCategory(in);
+                Money price = Money.ofCents(readVarLong(in));
+                return new CustomizableProduct(id, name, category, price, readVarInt(in));
+            }
+            case STANDARD_PRODUCT -> {
+                String id = strings.read();
+                String name = strings.read();
+                ProductCategory category = readCategory(in);
+                return new StandardProduct(id, name, category, Money.ofCents(readVarLong(in)));
+            }
+            default -> throw new IOException("Corrupt snapshot: unknown product tag " + kind);
+        }
+    }
+
+    private ProductCategory readCategory(DataInput in) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        return ordinal == NULL_ORDINAL ? null : ProductCategory.values()[ordinal - 1];
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private Ticket<?> readTicket(DataInput in, StringTableReader strings, Product[] products) throws IOException {
+        byte kind = in.readByte();
+        Ticket ticket;
+        TicketPrintType companyPrintType = null;
+        if (kind == COMPANY_TICKET) {
+            companyPrintType = TicketPrintType.values()[in.readUnsignedByte()];
+        } else if (kind != COMMON_TICKET) {
+            throw new IOException("Corrupt snapshot: unknown ticket tag " + kind);
+        }
+        byte strategy = in.readByte();
+        String id = strings.read();
+        ticket = (companyPrintType != null) ? new CompanyTicket(id, companyPrintType) : new CommonTicket(id);
+        TicketState state = TicketState.values()[in.readUnsignedByte()];
+        ticket.setOwners(strings.read(), strings.read());
+        ticket.setPrintStrategy(switch (strategy) {
+            case COMPANY_STRATEGY -> new CompanyPrintStrategy();
+            case SERVICE_STRATEGY -> new ServicePrintStrategy();
+            case STANDARD_STRATEGY -> new StandardPrintStrategy();
+            default -> null;
+        });
+
+        // Logic: Lines are replayed through addProduct so every index and total is rebuilt.
+        int lineCount = readVarInt(in);
+        for (int i = 0; i < lineCount; i++) {
+            Product product = products[readVarInt(in)];
+            int quantity = readVarInt(in);
+            int textCount = readVarInt(in);
+            List<String> customTexts = null;
+            if (textCount > 0) {
+                customTexts = new ArrayList<>(textCount - 1);
+                for (int j = 1; j < textCount; j++) {
+                    customTexts.add(strings.read());
+                }
+            }
+            ticket.addProduct(product, quantity, customTexts);
+        }
+        ticket.restoreState(state);
+        return ticket;
+    }
+
+    // ------------------------------------------------------------------ Primitives
+
+    private static void writeDateTime(DataOutput out, LocalDateTime dateTime) throws IOException {
+        writeVarLong(out, dateTime.toEpochSecond(ZoneOffset.UTC));
+        writeVarInt(out, dateTime.getNano());
+    }
+
+    private static LocalDateTime readDateTime(DataInput in) throws IOException {
+        long epochSecond = readVarLong(in);
+        return LocalDateTime.ofEpochSecond(epochSecond, readVarInt(in), ZoneOffset.UTC);
+    }
+
+    // Varint: 7 bits per byte, high bit = "more bytes follow".
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        int rest = value;
+        while ((rest & ~0x7F) != 0) {
+            out.writeByte((rest & 0x7F) | 0x80);
+            rest >>>= 7;
+        }
+        out.writeByte(rest);
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt snapshot: varint too long");
+    }
+
+    // Zig-zag: Small negative amounts stay short.
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        long rest = (value << 1) ^ (value >> 63);
+        while ((rest & ~0x7FL) != 0L) {
+            out.writeByte((int) ((rest & 0x7F) | 0x80));
+            rest >>>= 7;
+        }
+        out.writeByte((int) rest);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long raw = 0L;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = in.readUnsignedByte();
+            raw |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (raw >>> 1) ^ -(raw & 1L);
+            }
+        }
+        throw new IOException("Corrupt snapshot: varlong too long");
+    }
+
+    // String table: 0 = null, 1 = new literal (UTF) appended to the table, n + 2 = entry n.
+    private static final class StringTableWriter {
+        private final DataOutput out;
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        StringTableWriter(DataOutput out) {
+            this.out = out;
+        }
+
+        void write(String value) throws IOException {
+            if (value == null) {
+                writeVarInt(out, 0);
+                return;
+            }
+            Integer index = indexes.get(value);
+            if (index != null) {
+                writeVarInt(out, index + 2);
+            } else {
+                writeVarInt(out, 1);
+                out.writeUTF(value);
+                indexes.put(value, indexes.size());
+            }
+        }
+    }
+
+    private static final class StringTableReader {
+        private final DataInput in;
+        private final List<String> entries = new ArrayList<>();
+
+        StringTableReader(DataInput in) {
+            this.in = in;
+        }
+
+        String read() throws IOException {
+            int code = readVarInt(in);
+            if (code == 0) {
+                return null;
+            }
+            if (code == 1) {
+                String value = in.readUTF();
+                entries.add(value);
+                return value;
+            }
+            int index = code - 2;
+            if (index >= entries.size()) {
+                throw new IOException("Corrupt snapshot: bad string reference " + index);
+            }
+            return entries.get(index);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package es.upm.etsisi.poo.infrastructure.persistence;
+
+import java.util.Map;
+import java.util.List;
+import java.time.LocalDateTime;
+
+import es.upm.etsisi.poo.domain.product.Product;
+import es.upm.etsisi.poo.domain.product.EventType;
+import es.upm.etsisi.poo.domain.product.ServiceType;
+import es.upm.etsisi.poo.domain.ticket.TicketState;
+import es.upm.etsisi.poo.domain.product.ProductCategory;
+import es.upm.etsisi.poo.domain.ticket.TicketPrintType;
+
+// [Class] Frozen copy of a Store, so encoding can run without the Store's locks.
+// Caching: CLOSED tickets never change, so a codec reuses their images between captures of the
+// same Store; products, users and open tickets are copied each time.
+final class StoreImage {
+    final long journalSequence;
+    final int maxProducts;
+    final int catalogSize;                      // The first catalogSize products are the Catalog.
+    final ProductImage[] products;
+    final Map<Product, Integer> productIndex;   // Identity -> index, resolves LineImage.product.
+    final UserImage[] cashiers;
+    final UserImage[] clients;
+    final int repositorySize;                   // The first repositorySize tickets are the TicketRepository.
+    final TicketImage[] tickets;
+
+    StoreImage(long journalSequence, int maxProducts, int catalogSize, ProductImage[] products,
+            Map<Product, Integer> productIndex, UserImage[] cashiers, UserImage[] clients,
+            int repositorySize, TicketImage[] tickets) {
+        this.journalSequence = journalSequence;
+        this.maxProducts = maxProducts;
+        this.catalogSize = catalogSize;
+        this.products = products;
+        this.productIndex = productIndex;
+        this.cashiers = cashiers;
+        this.clients = clients;
+        this.repositorySize = repositorySize;
+        this.tickets = tickets;
+    }
+
+    static final class ProductImage {
+        final byte kind;
+        final String id;
+        final String name;
+        final ProductCategory category;
+        final long priceCents;
+        final LocalDateTime expirationDate;
+        final int maxParticipants;
+        final EventType eventType;
+        final ServiceType serviceType;
+        final int maxCustomizableTexts;
+
+        ProductImage(byte kind, String id, String name, ProductCategory category, long priceCents,
+                LocalDateTime expirationDate, int maxParticipants, EventType eventType,
+                ServiceType serviceType, int maxCustomizableTexts) {
+            this.kind = kind;
+            this.id = id;
+            this.name = name;
+            this.category = category;
+            this.priceCents = priceCents;
+            this.expirationDate = expirationDate;
+            this.maxParticipants = maxParticipants;
+            this.eventType = eventType;
+            this.serviceType = serviceType;
+            this.maxCustomizableTexts = maxCustomizableTexts;
+        }
+    }
+
+    static final class UserImage {
+        final byte kind;
+        final String id;
+        final String name;
+        final String email;
+        final String cashierId;
+        final int[] tickets;
+        final List<String> archivedTickets;     // IDs only: the tickets themselves are in the archive.
+
+        UserImage(byte kind, String id, String name, String email, String cashierId, int[] tickets,
+                List<String> archivedTickets) {
+            this.kind = kind;
+            this.id = id;
+            this.name = name;
+            this.email = email;
+            this.cashierId = cashierId;
+            this.tickets = tickets;
+            this.archivedTickets = archivedTickets;
+        }
+    }
+
+    static final class TicketImage {
+        final byte kind;
+        final TicketPrintType printType;
+        final byte strategy;
+        final String id;
+        final TicketState state;
+        final String cashierId;
+        final String clientId;
+        final LineImage[] lines;
+
+        TicketImage(byte kind, TicketPrintType printType, byte strategy, String id, TicketState state,
+                String cashierId, String clientId, LineImage[] lines) {
+            this.kind = kind;
+            this.printType = printType;
+            this.strategy = strategy;
+            this.id = id;
+            this.state = state;
+            this.cashierId = cashierId;
+            this.clientId = clientId;
+            this.lines = lines;
+        }
+    }
+
+    static final class LineImage {
+        final Product product;      // Identity only: its fields are read at capture, never here.
+        final int quantity;
+        final List<String> customTexts;
+
+        LineImage(Product product, int quantity, List<String> customTexts) {
+            this.product = product;
+            this.quantity = quantity;
+            this.customTexts = customTexts;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import java.time.LocalDateTime;
+
+// [Legacy] BookableProduct.
+abstract class BookableProduct extends Product {
+    private static final long serialVersionUID = 2703975435974083009L;
+
+    int maxParticipants;
+    LocalDateTime expirationDate;
+}
@@ -0,0 +1,21 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import java.util.List;
+
+import es.upm.etsisi.poo.domain.ticket.Ticket;
+
+// [Legacy] Cashier: its ticket list is also where the tickets' cashier ID comes from.
+class Cashier extends User {
+    private static final long serialVersionUID = 2787094767403595237L;
+
+    private List<Ticket<?>> tickets;
+
+    private Object readResolve() {
+        es.upm.etsisi.poo.domain.user.Cashier cashier = new es.upm.etsisi.poo.domain.user.Cashier(id, name, email);
+        for (Ticket<?> ticket : tickets) {
+            ticket.setOwners(id, ticket.getClientId());
+            cashier.addTicket(ticket);
+        }
+        return cashier;
+    }
+}
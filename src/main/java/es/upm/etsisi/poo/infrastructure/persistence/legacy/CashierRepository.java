@@ -0,0 +1,21 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import java.util.List;
+import java.io.Serializable;
+
+import es.upm.etsisi.poo.domain.user.Cashier;
+
+// [Legacy] CashierRepository: a plain list.
+class CashierRepository implements Serializable {
+    private static final long serialVersionUID = -5182214217004591455L;
+
+    private List<Cashier> cashiers;
+
+    private Object readResolve() {
+        es.upm.etsisi.poo.domain.user.CashierRepository repository = new es.upm.etsisi.poo.domain.user.CashierRepository();
+        for (Cashier entry : cashiers) {
+            repository.add(entry);
+        }
+        return repository;
+    }
+}
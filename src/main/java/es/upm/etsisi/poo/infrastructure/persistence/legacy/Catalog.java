@@ -0,0 +1,21 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import java.util.List;
+import java.io.Serializable;
+
+// [Legacy] Catalog: a plain list of products (at most 200). Resolved by LegacyObjectInputStream,
+// which knows the configured capacity.
+class Catalog implements Serializable {
+    private static final long serialVersionUID = 1184717629739678984L;
+
+    private List<es.upm.etsisi.poo.domain.product.Product> products;
+
+    es.upm.etsisi.poo.domain.product.Catalog resolve(int maxProducts) {
+        es.upm.etsisi.poo.domain.product.Catalog catalog =
+                new es.upm.etsisi.poo.domain.product.Catalog(Math.max(maxProducts, products.size()));
+        for (es.upm.etsisi.poo.domain.product.Product product : products) {
+            catalog.addProduct(product);
+        }
+        return catalog;
+    }
+}
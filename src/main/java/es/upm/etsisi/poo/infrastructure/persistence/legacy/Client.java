@@ -0,0 +1,18 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import java.util.List;
+
+import es.upm.etsisi.poo.domain.ticket.Ticket;
+
+// [Legacy] Client: its ticket list is also where the tickets' client ID comes from.
+abstract class Client extends User {
+    private static final long serialVersionUID = -1550466580540170778L;
+
+    Object restore(es.upm.etsisi.poo.domain.user.Client client, List<Ticket<?>> tickets) {
+        for (Ticket<?> ticket : tickets) {
+            ticket.setOwners(ticket.getCashierId(), id);
+            client.addTicket(ticket);
+        }
+        return client;
+    }
+}
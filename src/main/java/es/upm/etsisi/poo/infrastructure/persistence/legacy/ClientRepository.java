@@ -0,0 +1,21 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import java.util.List;
+import java.io.Serializable;
+
+import es.upm.etsisi.poo.domain.user.Client;
+
+// [Legacy] ClientRepository: a plain list.
+class ClientRepository implements Serializable {
+    private static final long serialVersionUID = 2079024531254966790L;
+
+    private List<Client> clients;
+
+    private Object readResolve() {
+        es.upm.etsisi.poo.domain.user.ClientRepository repository = new es.upm.etsisi.poo.domain.user.ClientRepository();
+        for (Client entry : clients) {
+            repository.add(entry);
+        }
+        return repository;
+    }
+}
@@ -0,0 +1,10 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+// [Legacy] CommonTicket.
+class CommonTicket extends Ticket {
+    private static final long serialVersionUID = 1266639415682539189L;
+
+    private Object readResolve() {
+        return restore(new es.upm.etsisi.poo.domain.ticket.CommonTicket(getId()));
+    }
+}
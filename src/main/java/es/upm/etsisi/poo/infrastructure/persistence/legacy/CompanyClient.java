@@ -0,0 +1,17 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import java.util.List;
+
+import es.upm.etsisi.poo.domain.ticket.Ticket;
+
+// [Legacy] CompanyClient.
+class CompanyClient extends Client {
+    private static final long serialVersionUID = 5078329452509663277L;
+
+    private String cashierId;
+    private List<Ticket<?>> tickets;
+
+    private Object readResolve() {
+        return restore(new es.upm.etsisi.poo.domain.user.CompanyClient(id, name, email, cashierId), tickets);
+    }
+}
@@ -0,0 +1,12 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import java.io.Serializable;
+
+// [Legacy] CompanyPrintStrategy: stateless, resolves to a fresh current strategy.
+class CompanyPrintStrategy implements Serializable {
+    private static final long serialVersionUID = -448379766006429716L;
+
+    private Object readResolve() {
+        return new es.upm.etsisi.poo.infrastructure.printing.CompanyPrintStrategy();
+    }
+}
@@ -0,0 +1,43 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import java.io.Serializable;
+
+import es.upm.etsisi.poo.domain.ticket.TicketPrintType;
+
+// [Legacy] CompanyTicket: the print type was only kept as a validation policy object.
+class CompanyTicket extends Ticket {
+    private static final long serialVersionUID = -2484072904070042528L;
+
+    private Object validationPolicy;
+
+    private Object readResolve() {
+        return restore(new es.upm.etsisi.poo.domain.ticket.CompanyTicket(getId(), printType()));
+    }
+
+    private TicketPrintType printType() {
+        if (validationPolicy instanceof ServiceOnlyPolicy) {
+            return TicketPrintType.SERVICE;
+        }
+        if (validationPolicy instanceof ProductOnlyPolicy) {
+            return TicketPrintType.STANDARD;
+        }
+        // MixedPolicy (DefaultPolicy was never chosen).
+        return TicketPrintType.COMPANY;
+    }
+
+    private static class MixedPolicy implements Serializable {
+        private static final long serialVersionUID = -6660066515803572376L;
+    }
+
+    private static class ServiceOnlyPolicy implements Serializable {
+        private static final long serialVersionUID = 2923578713458242367L;
+    }
+
+    private static class ProductOnlyPolicy implements Serializable {
+        private static final long serialVersionUID = -3121550123190487500L;
+    }
+
+    private static class DefaultPolicy implements Serializable {
+        private static final long serialVersionUID = -8803939852937707513L;
+    }
+}
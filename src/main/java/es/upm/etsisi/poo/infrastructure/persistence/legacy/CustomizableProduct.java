@@ -0,0 +1,15 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import java.util.List;
+
+// [Legacy] CustomizableProduct. Its own 'customTexts' list was never used; texts live on the lines.
+class CustomizableProduct extends Product {
+    private static final long serialVersionUID = -7456945224832299768L;
+
+    private int maxCustomizableTexts;
+    private List<String> customTexts;
+
+    private Object readResolve() {
+        return new es.upm.etsisi.poo.domain.product.CustomizableProduct(id, name, category, money(), maxCustomizableTexts);
+    }
+}
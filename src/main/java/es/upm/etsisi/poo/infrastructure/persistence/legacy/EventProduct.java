@@ -0,0 +1,14 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import es.upm.etsisi.poo.domain.product.EventType;
+
+// [Legacy] EventProduct.
+class EventProduct extends BookableProduct {
+    private static final long serialVersionUID = 5002144101534391207L;
+
+    private EventType type;
+
+    private Object readResolve() {
+        return new es.upm.etsisi.poo.domain.product.EventProduct(id, name, money(), expirationDate, maxParticipants, type);
+    }
+}
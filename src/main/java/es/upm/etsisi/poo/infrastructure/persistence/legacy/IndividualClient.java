@@ -0,0 +1,17 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import java.util.List;
+
+import es.upm.etsisi.poo.domain.ticket.Ticket;
+
+// [Legacy] IndividualClient.
+class IndividualClient extends Client {
+    private static final long serialVersionUID = 2507222302348242720L;
+
+    private String cashierId;
+    private List<Ticket<?>> tickets;
+
+    private Object readResolve() {
+        return restore(new es.upm.etsisi.poo.domain.user.IndividualClient(id, name, email, cashierId), tickets);
+    }
+}
@@ -0,0 +1,85 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamField;
+
+// [Class] Reads a store_data.dat written by the Java-serialized format (before SnapshotCodec).
+// Classes whose shape has changed since are read into the twins in this package (same simple
+// names, same fields, serialVersionUIDs pinned to the old ones), which readResolve into the
+// current domain objects. Enums kept their shape and resolve to the current classes.
+public class LegacyObjectInputStream extends ObjectInputStream {
+    private static final String DOMAIN_PREFIX = "es.upm.etsisi.poo.";
+    private static final String LEGACY_PREFIX = LegacyObjectInputStream.class.getPackageName() + ".";
+    // Security: Only the store's own classes and the JDK types it used (ArrayList checks its
+    // Object[] capacity, LocalDateTime comes through java.time.Ser).
+    private static final ObjectInputFilter FILTER = ObjectInputFilter.Config.createFilter(
+            "es.upm.etsisi.poo.**;java.util.ArrayList;java.lang.Object;java.lang.Enum;"
+                    + "java.time.Ser;java.time.LocalDateTime;maxdepth=64;!*");
+
+    private final int maxProducts;
+
+    // Config: The catalog gets the configured capacity (or more, if the file already holds more).
+    public LegacyObjectInputStream(InputStream in, int maxProducts) throws IOException {
+        super(in);
+        this.maxProducts = maxProducts;
+        setObjectInputFilter(FILTER);
+        enableResolveObject(true);
+    }
+
+    // Logic: Runs before the enclosing Store resolves, so it receives the current Catalog.
+    @Override
+    protected Object resolveObject(Object obj) {
+        return (obj instanceof Catalog catalog) ? catalog.resolve(maxProducts) : obj;
+    }
+
+    // Check: A stream class written by another build of the same source may carry a different
+    // default serialVersionUID; it is still read with the twin as long as the fields match.
+    @Override
+    protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+        ObjectStreamClass written = super.readClassDescriptor();
+        Class<?> twin = legacyClass(written.getName());
+        ObjectStreamClass local = (twin != null) ? ObjectStreamClass.lookup(twin) : null;
+        if (local != null && local.getSerialVersionUID() != written.getSerialVersionUID() && sameFields(written, local)) {
+            return local;
+        }
+        return written;
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+        Class<?> twin = legacyClass(desc.getName());
+        return (twin != null) ? twin : super.resolveClass(desc);
+    }
+
+    private static Class<?> legacyClass(String name) {
+        if (!name.startsWith(DOMAIN_PREFIX) || name.startsWith(LEGACY_PREFIX)) {
+            return null;
+        }
+        try {
+            // Key: Simple binary name, e.g. "CompanyTicket$MixedPolicy".
+            return Class.forName(LEGACY_PREFIX + name.substring(name.lastIndexOf('.') + 1), false,
+                    LegacyObjectInputStream.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static boolean sameFields(ObjectStreamClass written, ObjectStreamClass local) {
+        ObjectStreamField[] writtenFields = written.getFields();
+        ObjectStreamField[] localFields = local.getFields();
+        if (writtenFields.length != localFields.length) {
+            return false;
+        }
+        for (int i = 0; i < writtenFields.length; i++) {
+            if (!writtenFields[i].getName().equals(localFields[i].getName())
+                    || writtenFields[i].getTypeCode() != localFields[i].getTypeCode()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,21 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import java.io.Serializable;
+
+import es.upm.etsisi.poo.domain.money.Money;
+import es.upm.etsisi.poo.domain.product.ProductCategory;
+
+// [Legacy] Product: prices were doubles.
+abstract class Product implements Serializable {
+    private static final long serialVersionUID = -8711643995995304915L;
+
+    String name;
+    double price;
+    String id;
+    ProductCategory category;
+
+    // Logic: Shortest decimal form of the double, rounded half-up to cents (as Money.parse does).
+    Money money() {
+        return Money.parse(Double.toString(price));
+    }
+}
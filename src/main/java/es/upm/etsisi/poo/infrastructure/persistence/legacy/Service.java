@@ -0,0 +1,17 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import java.time.LocalDateTime;
+
+import es.upm.etsisi.poo.domain.product.ServiceType;
+
+// [Legacy] Service.
+class Service extends Product {
+    private static final long serialVersionUID = 1929169863247290129L;
+
+    private ServiceType serviceType;
+    private LocalDateTime expirationDate;
+
+    private Object readResolve() {
+        return new es.upm.etsisi.poo.domain.product.Service(id, expirationDate, serviceType);
+    }
+}
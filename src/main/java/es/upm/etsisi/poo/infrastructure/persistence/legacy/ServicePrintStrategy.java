@@ -0,0 +1,12 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import java.io.Serializable;
+
+// [Legacy] ServicePrintStrategy: stateless, resolves to a fresh current strategy.
+class ServicePrintStrategy implements Serializable {
+    private static final long serialVersionUID = 5721517796587182353L;
+
+    private Object readResolve() {
+        return new es.upm.etsisi.poo.infrastructure.printing.ServicePrintStrategy();
+    }
+}
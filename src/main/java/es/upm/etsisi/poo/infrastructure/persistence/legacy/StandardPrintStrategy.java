@@ -0,0 +1,12 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import java.io.Serializable;
+
+// [Legacy] StandardPrintStrategy: stateless, resolves to a fresh current strategy.
+class StandardPrintStrategy implements Serializable {
+    private static final long serialVersionUID = -2151866117469139570L;
+
+    private Object readResolve() {
+        return new es.upm.etsisi.poo.infrastructure.printing.StandardPrintStrategy();
+    }
+}
@@ -0,0 +1,10 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+// [Legacy] StandardProduct.
+class StandardProduct extends Product {
+    private static final long serialVersionUID = 5742221715671869309L;
+
+    private Object readResolve() {
+        return new es.upm.etsisi.poo.domain.product.StandardProduct(id, name, category, money());
+    }
+}
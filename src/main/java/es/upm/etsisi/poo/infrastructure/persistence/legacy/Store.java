@@ -0,0 +1,23 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import java.io.Serializable;
+
+import es.upm.etsisi.poo.domain.user.ClientRepository;
+import es.upm.etsisi.poo.domain.user.CashierRepository;
+import es.upm.etsisi.poo.domain.ticket.TicketRepository;
+
+// [Legacy] Store as serialized before SnapshotCodec. Fields are already resolved when
+// readResolve runs, so they hold the current repositories.
+class Store implements Serializable {
+    private static final long serialVersionUID = 5171619029924975406L;
+
+    private Object catalog;
+    private Object ticketRepository;
+    private Object clientRepository;
+    private Object cashierRepository;
+
+    private Object readResolve() {
+        return new es.upm.etsisi.poo.application.Store((es.upm.etsisi.poo.domain.product.Catalog) catalog,
+                (TicketRepository) ticketRepository, (ClientRepository) clientRepository, (CashierRepository) cashierRepository);
+    }
+}
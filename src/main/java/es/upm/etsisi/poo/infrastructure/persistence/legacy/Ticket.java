@@ -0,0 +1,32 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import java.util.List;
+import java.io.Serializable;
+
+import es.upm.etsisi.poo.domain.ticket.TicketState;
+import es.upm.etsisi.poo.domain.printing.PrintStrategy;
+
+// [Legacy] Ticket: no owner IDs yet (the cashier and client twins fill them in).
+abstract class Ticket implements Serializable {
+    private static final long serialVersionUID = 584647046094678845L;
+
+    private String id;
+    private TicketState state;
+    private List<TicketLine> lines;
+    private Object printStrategy;
+
+    String getId() {
+        return id;
+    }
+
+    // Logic: Lines are replayed through addProduct so every index and total is rebuilt.
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    Object restore(es.upm.etsisi.poo.domain.ticket.Ticket ticket) {
+        ticket.setPrintStrategy((PrintStrategy) printStrategy);
+        for (TicketLine line : lines) {
+            ticket.addProduct(line.product, line.quantity, line.customTexts);
+        }
+        ticket.restoreState(state);
+        return ticket;
+    }
+}
@@ -0,0 +1,15 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import java.util.List;
+import java.io.Serializable;
+
+import es.upm.etsisi.poo.domain.product.Product;
+
+// [Legacy] TicketLine: kept as is and replayed by its ticket.
+class TicketLine implements Serializable {
+    private static final long serialVersionUID = -119940501050895556L;
+
+    int quantity;
+    Product product;
+    List<String> customTexts;
+}
@@ -0,0 +1,19 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import java.util.List;
+import java.io.Serializable;
+
+// [Legacy] TicketRepository: a plain list.
+class TicketRepository implements Serializable {
+    private static final long serialVersionUID = -4121251517887818419L;
+
+    private List<es.upm.etsisi.poo.domain.ticket.Ticket<?>> tickets;
+
+    private Object readResolve() {
+        es.upm.etsisi.poo.domain.ticket.TicketRepository repository = new es.upm.etsisi.poo.domain.ticket.TicketRepository();
+        for (es.upm.etsisi.poo.domain.ticket.Ticket<?> ticket : tickets) {
+            repository.add(ticket);
+        }
+        return repository;
+    }
+}
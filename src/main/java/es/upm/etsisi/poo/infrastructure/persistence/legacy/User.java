@@ -0,0 +1,12 @@
+package es.upm.etsisi.poo.infrastructure.persistence.legacy;
+
+import java.io.Serializable;
+
+// [Legacy] User.
+abstract class User implements Serializable {
+    private static final long serialVersionUID = -1458645484488769166L;
+
+    String id;
+    String name;
+    String email;
+}
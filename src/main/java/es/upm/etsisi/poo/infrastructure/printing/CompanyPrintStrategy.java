@@ -1,51 +1,43 @@
 package es.upm.etsisi.poo.infrastructure.printing;
 
+import java.io.IOException;
+
 import es.upm.etsisi.poo.domain.ticket.Ticket;
 import es.upm.etsisi.poo.domain.product.Product;
 import es.upm.etsisi.poo.domain.ticket.TicketLine;
+import es.upm.etsisi.poo.domain.ticket.TicketTotals;
+import es.upm.etsisi.poo.domain.ticket.PricingEngine;
 import es.upm.etsisi.poo.domain.printing.PrintStrategy;
+import es.upm.etsisi.poo.domain.printing.ReceiptWriter;
 
 // [Class] Prints ticket in company format.
 public class CompanyPrintStrategy implements PrintStrategy {
 
-    private static final double MIXED_TICKET_DISCOUNT_RATE = 0.15;
-
     @Override
-    public String formatTicket(Ticket<?> ticket) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("Ticket ID: ").append(ticket.getId()).append(" (Company)\n");
-        sb.append("--------------------");
+    public void formatTicket(Ticket<?> ticket, Appendable out) throws IOException {
+        ReceiptWriter writer = new ReceiptWriter(out);
+        writer.append("Ticket ID: ").append(ticket.getId()).append(" (Company)").newLine();
+        writer.append("--------------------");
 
-        int numServices = 0;
-        double standardProductsTotal = 0;
+        TicketTotals totals = ticket.getTotals();
+        long standardProductsTotal = PricingEngine.standardProductsTotal(totals);
+        int discountBasisPoints = PricingEngine.companyDiscountBasisPoints(totals);
+        long finalPrice = PricingEngine.companyTotal(totals);
+        long totalDiscount = standardProductsTotal - finalPrice;
 
         for (TicketLine<?> line : ticket.getLines()) {
             Product product = line.getProduct();
-            if (product.isService()) {
-                numServices++;
-            } else {
-                standardProductsTotal += line.getLineTotal();
-            }
-        }
 
-        double discountRate = Math.min(numServices * MIXED_TICKET_DISCOUNT_RATE, 1.0);
-        double totalDiscount = standardProductsTotal * discountRate;
-        double finalPrice = standardProductsTotal - totalDiscount;
-        
-        for (TicketLine<?> line : ticket.getLines()) {
-            Product product = line.getProduct();
-            
-            sb.append(String.format("Name: %s%s, %s\n",
-                product.getName(),
-                product.getExpirationDetails(),
-                product.getPrintablePriceDetails()));
+            writer.append("Name: ").append(product.getName());
+            product.writeExpirationDetails(writer);
+            writer.append(", ");
+            product.writePrintablePriceDetails(writer);
+            writer.newLine();
         }
 
-        sb.append("--------------------");
-        sb.append(String.format("Total (Standard Products): %.2f\n", standardProductsTotal));
-        sb.append(String.format("Discount (%.0f%%): -%.2f\n", discountRate * 100, totalDiscount));
-        sb.append(String.format("Final Price: %.2f\n", finalPrice));
-
-        return sb.toString();
+        writer.append("--------------------");
+        writer.append("Total (Standard Products): ").appendMoney(standardProductsTotal).newLine();
+        writer.append("Discount (").appendLong(discountBasisPoints / 100).append("%): -").appendMoney(totalDiscount).newLine();
+        writer.append("Final Price: ").appendMoney(finalPrice).newLine();
     }
-}
\ No newline at end of file
+}
@@ -1,36 +1,32 @@
 package es.upm.etsisi.poo.infrastructure.printing;
 
+import java.io.IOException;
+
 import es.upm.etsisi.poo.domain.ticket.Ticket;
 import es.upm.etsisi.poo.domain.product.Product;
 import es.upm.etsisi.poo.domain.ticket.TicketLine;
 import es.upm.etsisi.poo.domain.printing.PrintStrategy;
+import es.upm.etsisi.poo.domain.printing.ReceiptWriter;
 
 // [Class] Prints ticket in service format.
 public class ServicePrintStrategy implements PrintStrategy {
     @Override
-    public String formatTicket(Ticket<?> ticket) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("Ticket ID: ").append(ticket.getId()).append(" (Services Only)\n");
-        sb.append("--------------------\n");
-
-        double totalServicePrice = 0;
+    public void formatTicket(Ticket<?> ticket, Appendable out) throws IOException {
+        ReceiptWriter writer = new ReceiptWriter(out);
+        writer.append("Ticket ID: ").append(ticket.getId()).append(" (Services Only)").newLine();
+        writer.append("--------------------").newLine();
 
         for (TicketLine<?> line : ticket.getLines()) {
             Product product = line.getProduct();
 
-            // If you strictly only want to sum services:
-            if (product.isService()) {
-                totalServicePrice += line.getLineTotal();
-            }
-
-            // Service.java returns "Price: HIDDEN" and StandardProduct.java returns "Price: 10.00"
-            sb.append(String.format("Name: %s, %s\n",
-                product.getName(),
-                product.getPrintablePriceDetails()));
+            // Service writes "Price: HIDDEN" and StandardProduct writes "Price: 10.00"
+            writer.append("Name: ").append(product.getName()).append(", ");
+            product.writePrintablePriceDetails(writer);
+            writer.newLine();
         }
 
-        sb.append("--------------------\n");
-        sb.append(String.format("Total (Services): %.2f\n", totalServicePrice));
-        return sb.toString();
+        writer.append("--------------------").newLine();
+        // Only services are summed (running total kept by the ticket).
+        writer.append("Total (Services): ").appendMoney(ticket.getTotals().getServiceSubtotal()).newLine();
     }
-}
\ No newline at end of file
+}
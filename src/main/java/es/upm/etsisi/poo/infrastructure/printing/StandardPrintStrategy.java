@@ -1,26 +1,28 @@
 package es.upm.etsisi.poo.infrastructure.printing;
 
+import java.io.IOException;
+
 import es.upm.etsisi.poo.domain.ticket.Ticket;
 import es.upm.etsisi.poo.domain.product.Product;
 import es.upm.etsisi.poo.domain.ticket.TicketLine;
 import es.upm.etsisi.poo.domain.printing.PrintStrategy;
+import es.upm.etsisi.poo.domain.printing.ReceiptWriter;
 
 // [Class] Prints ticket in standard format.
 public class StandardPrintStrategy implements PrintStrategy {
 
     @Override
-    public String formatTicket(Ticket<?> ticket) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("Ticket ID: ").append(ticket.getId()).append("\n");
-        sb.append("--------------------\n");
+    public void formatTicket(Ticket<?> ticket, Appendable out) throws IOException {
+        ReceiptWriter writer = new ReceiptWriter(out);
+        writer.append("Ticket ID: ").append(ticket.getId()).newLine();
+        writer.append("--------------------").newLine();
 
         for (TicketLine<?> line : ticket.getLines()) {
             Product product = line.getProduct();
-            sb.append(String.format("Name: %s, Price: %.2f\n", product.getName(), product.getPrice()));
+            writer.append("Name: ").append(product.getName()).append(", Price: ").appendMoney(product.getPrice()).newLine();
         }
 
-        sb.append("--------------------\n");
-        sb.append(String.format("Total price: %.2f\n", ticket.getTotalPrice()));
-        return sb.toString();
+        writer.append("--------------------").newLine();
+        writer.append("Total price: ").appendMoney(ticket.getTotalCents()).newLine();
     }
-}
\ No newline at end of file
+}
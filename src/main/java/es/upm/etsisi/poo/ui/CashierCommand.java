@@ -1,5 +1,6 @@
 package es.upm.etsisi.poo.ui;
 
+import java.io.PrintStream;
 import java.util.List;
 import java.util.Collections;
 
@@ -10,22 +11,17 @@ import es.upm.etsisi.poo.domain.exceptions.UPMStoreDomainException;
 
 // [Command] Cashier CRUD operations.
 class CashierCommand extends AbstractCommand {
-    public CashierCommand(Store store) {
-        super(store);
+    public CashierCommand(Store store, PrintStream out) {
+        super(store, out);
     }
 
     @Override
     @SuppressWarnings("Convert2Lambda")
-    public void execute(String[] args) throws IllegalArgumentException, UPMStoreDomainException {
-        if (args.length == 0) {
+    public void execute(CommandTokenizer args) throws IllegalArgumentException, UPMStoreDomainException {
+        if (!args.hasNext()) {
             throw new IllegalArgumentException("Usage: cash add | remove | list | tickets");
         }
-        List<String> argList = parseArgs(args[0]);
-        if (argList.isEmpty()) {
-            return;
-        }
-        String command = argList.get(0);
-        argList.remove(0);
+        String command = args.next();
 
         switch (command) {
             case "add" -> {
@@ -34,21 +30,20 @@ class CashierCommand extends AbstractCommand {
                 String email;
 
                 // Rule: Check if optional Cashier ID is provided (E2)
-                if (argList.size() > 2) {
-                    id = argList.get(0);
-                    argList.remove(0);
+                if (args.remaining() > 2) {
+                    id = args.next();
                 }
-                name = argList.get(0);
-                email = argList.get(1);
+                name = args.get(0);
+                email = args.get(1);
 
                 store.addCashier(id, name, email);
-                System.out.println("cash add: ok");
+                out.println("cash add: ok");
             }
             case "remove" -> {
-                if (!argList.isEmpty()) {
-                    String cashierId = argList.get(0);
+                if (args.hasNext()) {
+                    String cashierId = args.get(0);
                     store.removeCashier(cashierId);
-                    System.out.println("cash remove: ok");
+                    out.println("cash remove: ok");
                 } else {
                     throw new IllegalArgumentException("Usage: cash remove <id>");
                 }
@@ -57,21 +52,21 @@ class CashierCommand extends AbstractCommand {
                 List<Cashier> cashierList = store.getCashiers();
                 // Rule: Sort by name (E2)
                 Collections.sort(cashierList);
-                System.out.println("Cashiers:");
+                out.println("Cashiers:");
                 for (Cashier cashier : cashierList) {
-                    System.out.println("  " + cashier);
+                    out.println("  " + cashier);
                 }
-                System.out.println("cash list: ok");
+                out.println("cash list: ok");
             }
             case "tickets" -> {
-                if (!argList.isEmpty()) {
-                    String cashierId = argList.get(0);
+                if (args.hasNext()) {
+                    String cashierId = args.get(0);
                     Cashier cashier = store.findCashierById(cashierId);
                     if (cashier == null) {
                         throw new IllegalArgumentException("Error: Cashier with ID " + cashierId + " not found.");
                     }
 
-                    List<Ticket<?>> cashierTickets = cashier.getTickets();
+                    List<Ticket<?>> cashierTickets = store.getTicketsByCashierId(cashierId);
 
                     Collections.sort(cashierTickets, new java.util.Comparator<Ticket<?>>() {
                         @Override
@@ -80,17 +75,17 @@ class CashierCommand extends AbstractCommand {
                         }
                     });
 
-                    System.out.println("Tickets for Cashier " + cashierId + ":");
+                    out.println("Tickets for Cashier " + cashierId + ":");
                     for (Ticket<?> ticket : cashierTickets) {
                         // Rule: Show only ID and state (E2)
-                        System.out.println("  ID: " + ticket.getId() + ", State: " + ticket.getState());
+                        out.println("  ID: " + ticket.getId() + ", State: " + ticket.getState());
                     }
-                    System.out.println("cash tickets: ok");
+                    out.println("cash tickets: ok");
                 } else {
                     throw new IllegalArgumentException("Usage: cash tickets <id>");
                 }
             }
-            default -> System.out.println("Unknown cash command.");
+            default -> out.println("Unknown cash command.");
         }
     }
 }
\ No newline at end of file
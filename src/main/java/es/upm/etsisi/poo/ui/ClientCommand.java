@@ -1,5 +1,6 @@
 package es.upm.etsisi.poo.ui;
 
+import java.io.PrintStream;
 import java.util.List;
 import java.util.Collections;
 
@@ -12,29 +13,24 @@ import es.upm.etsisi.poo.domain.exceptions.UPMStoreDomainException;
 // [Command] Client CRUD operations.
 class ClientCommand extends AbstractCommand {
 
-    public ClientCommand(Store store) {
-        super(store);
+    public ClientCommand(Store store, PrintStream out) {
+        super(store, out);
     }
 
     @Override
     @SuppressWarnings("Convert2Lambda")
-    public void execute(String[] args) throws IllegalArgumentException, UPMStoreDomainException {
-        if (args.length == 0) {
+    public void execute(CommandTokenizer args) throws IllegalArgumentException, UPMStoreDomainException {
+        if (!args.hasNext()) {
             throw new IllegalArgumentException("Usage: client add | remove | list");
         }
-        List<String> argList = parseArgs(args[0]);
-        if (argList.isEmpty()) {
-            return;
-        }
-        String command = argList.get(0);
-        argList.remove(0);
+        String command = args.next();
 
         switch (command) {
             case "add" -> {
-                String id = argList.get(1);
-                String name = argList.get(0);
-                String email = argList.get(2);
-                String cashierId = argList.get(3);
+                String id = args.get(1);
+                String name = args.get(0);
+                String email = args.get(2);
+                String cashierId = args.get(3);
 
                 Client client;
 
@@ -52,13 +48,13 @@ class ClientCommand extends AbstractCommand {
                 }
 
                 store.addClient(client);
-                System.out.println("client add: ok");
+                out.println("client add: ok");
             }
             case "remove" -> {
-                if (!argList.isEmpty()) {
-                    String dniToRemove = argList.get(0);
+                if (args.hasNext()) {
+                    String dniToRemove = args.get(0);
                     store.removeClient(dniToRemove);
-                    System.out.println("client remove: ok");
+                    out.println("client remove: ok");
                 } else {
                     throw new IllegalArgumentException("Usage: client remove <DNI>");
                 }
@@ -68,13 +64,13 @@ class ClientCommand extends AbstractCommand {
 
                 // Rule: Sort by name (E2)
                 Collections.sort(clientList);
-                System.out.println("Clients:");
+                out.println("Clients:");
                 for (Client c : clientList) {
-                    System.out.println("  " + c);
+                    out.println("  " + c);
                 }
-                System.out.println("client list: ok");
+                out.println("client list: ok");
             }
-            default -> System.out.println("Unknown client command.");
+            default -> out.println("Unknown client command.");
         }
     }
 }
\ No newline at end of file
@@ -4,5 +4,6 @@ import es.upm.etsisi.poo.domain.exceptions.UPMStoreDomainException;
 
 // [Interface] For executing commands.
 public interface Command {
-    void execute(String[] args) throws IllegalArgumentException, UPMStoreDomainException;
+    // args: Cursor positioned after the command name.
+    void execute(CommandTokenizer args) throws IllegalArgumentException, UPMStoreDomainException;
 }
\ No newline at end of file
@@ -1,91 +1,166 @@
 package es.upm.etsisi.poo.ui;
 
-import java.util.Map;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.io.PrintStream;
 
 import es.upm.etsisi.poo.application.Store;
 import es.upm.etsisi.poo.domain.exceptions.UPMStoreDomainException;
 
 // [Controller] Dispatches commands to Store.
+// Session: One handler per till; handlers are not thread-safe, the Store they share is.
+// Metrics: Every line is timed into the shared CommandMetrics, keyed by command and subcommand.
 public class CommandHandler {
-    private final Map<String, Command> commands = new HashMap<>();
     private final Store store;
+    private final PrintStream out;
+    private final CommandMetrics metrics;
+    // Dispatch: Precompiled name table, matched in place against the tokenized line.
+    private String[] names = new String[0];
+    private Command[] commands = new Command[0];
+    // Metrics: Series resolved at registration, so recording never builds a key.
+    private String[][] subcommands = new String[0][];
+    private CommandMetrics.Series[][] subseries = new CommandMetrics.Series[0][];
+    private CommandMetrics.Series[] series = new CommandMetrics.Series[0];
+    private final CommandMetrics.Series echoSeries;
+    private final CommandMetrics.Series helpSeries;
+    private final CommandMetrics.Series unknownSeries;
+    private final CommandTokenizer tokenizer = new CommandTokenizer();
 
     public CommandHandler(Store store) {
+        this(store, System.out);
+    }
+
+    public CommandHandler(Store store, PrintStream out) {
+        this(store, out, CommandMetrics.shared());
+    }
+
+    public CommandHandler(Store store, PrintStream out, CommandMetrics metrics) {
         this.store = store;
+        this.out = out;
+        this.metrics = metrics;
+        this.echoSeries = metrics.series("echo");
+        this.helpSeries = metrics.series("help");
+        this.unknownSeries = metrics.series("unknown");
         initializeCommands();
     }
 
     private void initializeCommands() {
-        commands.put("prod", new ProductCommand(store));
-        commands.put("client", new ClientCommand(store));
-        commands.put("cash", new CashierCommand(store));
-        commands.put("ticket", new TicketCommand(store));
+        register("prod", new ProductCommand(store, out), "add", "addFood", "addMeeting", "list", "update", "remove");
+        register("client", new ClientCommand(store, out), "add", "remove", "list");
+        register("cash", new CashierCommand(store, out), "add", "remove", "list", "tickets");
+        register("ticket", new TicketCommand(store, out), "new", "add", "remove", "print", "list");
+        register("stats", new StatsCommand(store, out, metrics), "reset");
     }
 
-    public void handle(String input) {
-        String[] parts = input.trim().split("\\s+", 2);
-        if (parts.length == 0 || parts[0].isEmpty()) return;
+    // Metrics: Lines whose first argument is not one of 'subs' are counted under the bare name.
+    private void register(String name, Command command, String... subs) {
+        int size = names.length;
+        names = Arrays.copyOf(names, size + 1);
+        commands = Arrays.copyOf(commands, size + 1);
+        subcommands = Arrays.copyOf(subcommands, size + 1);
+        subseries = Arrays.copyOf(subseries, size + 1);
+        series = Arrays.copyOf(series, size + 1);
+        names[size] = name;
+        commands[size] = command;
+        subcommands[size] = subs;
+        subseries[size] = new CommandMetrics.Series[subs.length];
+        for (int i = 0; i < subs.length; i++) {
+            subseries[size][i] = metrics.series(name + " " + subs[i]);
+        }
+        series[size] = metrics.series(name);
+    }
+
+    private int lookup() {
+        for (int i = 0; i < names.length; i++) {
+            if (tokenizer.commandIs(names[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Called before execute: the cursor is still on the first argument.
+    private CommandMetrics.Series seriesOf(int index) {
+        if (tokenizer.hasNext()) {
+            String[] subs = subcommands[index];
+            for (int i = 0; i < subs.length; i++) {
+                if (tokenizer.is(0, subs[i])) {
+                    return subseries[index][i];
+                }
+            }
+        }
+        return series[index];
+    }
 
-        String commandName = parts[0].toLowerCase();
-        String[] args = parts.length > 1 ? new String[]{parts[1]} : new String[0];
+    public void handle(String input) {
+        long start = System.nanoTime();
+        tokenizer.reset(input);
+        if (!tokenizer.hasCommand()) return;
 
-        if ("echo".equals(commandName)) {
-            System.out.println(String.join(" ", args));
+        if (tokenizer.commandIs("echo")) {
+            out.println(tokenizer.rest());
+            echoSeries.record(System.nanoTime() - start);
             return;
         }
-        if ("help".equals(commandName)) {
+        if (tokenizer.commandIs("help")) {
             printHelp();
+            helpSeries.record(System.nanoTime() - start);
             return;
         }
 
-        Command command = commands.get(commandName);
-        if (command != null) {
+        int index = lookup();
+        if (index >= 0) {
+            CommandMetrics.Series timed = seriesOf(index);
             try {
-                command.execute(args);
+                commands[index].execute(tokenizer);
             } catch (UPMStoreDomainException e) {
                 // Error: Handle domain exceptions.
-                System.out.println("Error: " + e.getMessage());
+                timed.error(e);
+                out.println("Error: " + e.getMessage());
             } catch (IllegalArgumentException e) {
                 // Error: Handle crash/bug.
-                System.out.println("Unexpected Error: " + e.getMessage());
+                timed.error(e);
+                out.println("Unexpected Error: " + e.getMessage());
+            } finally {
+                timed.record(System.nanoTime() - start);
             }
         } else {
-            System.out.println("Unknown command: " + commandName);
+            out.println("Unknown command: " + tokenizer.command().toLowerCase());
+            unknownSeries.record(System.nanoTime() - start);
         }
     }
 
     private void printHelp() {
-        System.out.println("Available commands:");
+        out.println("Available commands:");
         
         // --- USERS (Client & Cashier) ---
-        System.out.println("  client add \"<name>\" <DNI|NIF> <email> <cashId>");
-        System.out.println("  client remove <id>");
-        System.out.println("  client list");
-        System.out.println("  cash add [<id>] \"<name>\" <email>");
-        System.out.println("  cash remove <id>");
-        System.out.println("  cash list");
-        System.out.println("  cash tickets <id>");
+        out.println("  client add \"<name>\" <DNI|NIF> <email> <cashId>");
+        out.println("  client remove <id>");
+        out.println("  client list");
+        out.println("  cash add [<id>] \"<name>\" <email>");
+        out.println("  cash remove <id>");
+        out.println("  cash list");
+        out.println("  cash tickets <id>");
 
         // --- PRODUCTS (Standard, Event, & E3 Services) ---
-        System.out.println("  prod add [<id>] \"<name>\" <category> <price> [<maxPers>]");
-        System.out.println("  prod add <expiration:yyyy-MM-dd> <category>"); // E3 Service
-        System.out.println("  prod update <id> NAME|CATEGORY|PRICE <value>");
-        System.out.println("  prod remove <id>");
-        System.out.println("  prod list");
-        System.out.println("  prod addFood [<id>] \"<name>\" <price> <expiration:yyyy-MM-dd> <max_people>");
-        System.out.println("  prod addMeeting [<id>] \"<name>\" <price> <expiration:yyyy-MM-dd> <max_people>");
+        out.println("  prod add [<id>] \"<name>\" <category> <price> [<maxPers>]");
+        out.println("  prod add <expiration:yyyy-MM-dd> <category>"); // E3 Service
+        out.println("  prod update <id> NAME|CATEGORY|PRICE <value>");
+        out.println("  prod remove <id>");
+        out.println("  prod list [--category <category>] [--kind <kind>] [--from <yyyy-MM-dd>] [--to <yyyy-MM-dd>]");
+        out.println("  prod addFood [<id>] \"<name>\" <price> <expiration:yyyy-MM-dd> <max_people>");
+        out.println("  prod addMeeting [<id>] \"<name>\" <price> <expiration:yyyy-MM-dd> <max_people>");
 
         // --- TICKETS (E3 Strategy Logic) ---
-        System.out.println("  ticket new [<id>] <cashId> <userId> -[c/p/s]"); // E3 Flags
-        System.out.println("  ticket add <ticketId> <cashId> <prodId> <amount> [--p<txt> --p<txt>]");
-        System.out.println("  ticket remove <ticketId> <cashId> <prodId>");
-        System.out.println("  ticket print <ticketId> <cashId>");
-        System.out.println("  ticket list");
+        out.println("  ticket new [<id>] <cashId> <userId> -[c/p/s]"); // E3 Flags
+        out.println("  ticket add <ticketId> <cashId> <prodId> <amount> [--p<txt> --p<txt>]");
+        out.println("  ticket remove <ticketId> <cashId> <prodId>");
+        out.println("  ticket print <ticketId> <cashId>");
+        out.println("  ticket list");
 
         // --- SYSTEM ---
-        System.out.println("  help");
-        System.out.println("  echo \"<text>\"");
-        System.out.println("  exit");
+        out.println("  help");
+        out.println("  echo \"<text>\"");
+        out.println("  stats [reset]");
+        out.println("  exit");
     }
 }
\ No newline at end of file
@@ -0,0 +1,225 @@
+package es.upm.etsisi.poo.ui;
+
+import java.util.Map;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.ArrayList;
+import java.util.function.ToDoubleFunction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.ConcurrentHashMap;
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.MBeanServer;
+
+// [Class] Latency, volume and error counters per command ("ticket add", "prod list"...).
+// Shared by every handler (one per till) so the numbers cover the whole process.
+// Cost: Handlers resolve their Series once at startup; recording is two nanoTime calls plus the
+// histogram's atomic increment. Errors (the slow path) are counted by exception type.
+public final class CommandMetrics implements CommandMetricsMXBean {
+    public static final String OBJECT_NAME = "es.upm.etsisi.poo:type=CommandMetrics";
+    private static final CommandMetrics SHARED = new CommandMetrics();
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    private final ConcurrentHashMap<String, Series> series = new ConcurrentHashMap<>();
+    private volatile long since = System.nanoTime();
+
+    // Default instance used by CommandHandler and published over JMX by App.
+    public static CommandMetrics shared() {
+        return SHARED;
+    }
+
+    // Lookup: Same Series for the same name, across handlers.
+    public Series series(String name) {
+        return series.computeIfAbsent(name, Series::new);
+    }
+
+    // Logic: Publish on the platform MBean server; a second call is a no-op.
+    public synchronized void registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (!server.isRegistered(name)) {
+            server.registerMBean(this, name);
+        }
+    }
+
+    @Override
+    public void reset() {
+        for (Series entry : series.values()) {
+            entry.reset();
+        }
+        since = System.nanoTime();
+    }
+
+    @Override
+    public double getUptimeSeconds() {
+        return (System.nanoTime() - since) / 1e9;
+    }
+
+    @Override
+    public long getCommandCount() {
+        long total = 0L;
+        for (Series entry : series.values()) {
+            total += entry.histogram.snapshot().getCount();
+        }
+        return total;
+    }
+
+    @Override
+    public long getErrorCount() {
+        long total = 0L;
+        for (Series entry : series.values()) {
+            total += entry.getErrorCount();
+        }
+        return total;
+    }
+
+    @Override
+    public double getOpsPerSecond() {
+        return rate(getCommandCount(), getUptimeSeconds());
+    }
+
+    @Override
+    public Map<String, Long> getCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        snapshots().forEach((name, snapshot) -> counts.put(name, snapshot.getCount()));
+        return counts;
+    }
+
+    @Override
+    public Map<String, Double> getOpsPerSecondByCommand() {
+        double seconds = getUptimeSeconds();
+        return latencies(snapshot -> rate(snapshot.getCount(), seconds));
+    }
+
+    @Override
+    public Map<String, Double> getMeanMicros() {
+        return latencies(snapshot -> snapshot.getMeanNanos() / NANOS_PER_MICRO);
+    }
+
+    @Override
+    public Map<String, Double> getP50Micros() {
+        return latencies(snapshot -> snapshot.getPercentileNanos(50.0) / NANOS_PER_MICRO);
+    }
+
+    @Override
+    public Map<String, Double> getP99Micros() {
+        return latencies(snapshot -> snapshot.getPercentileNanos(99.0) / NANOS_PER_MICRO);
+    }
+
+    @Override
+    public Map<String, Double> getMaxMicros() {
+        return latencies(snapshot -> snapshot.getMaxNanos() / NANOS_PER_MICRO);
+    }
+
+    @Override
+    public Map<String, Long> getErrors() {
+        Map<String, Long> errors = new TreeMap<>();
+        for (Series entry : series.values()) {
+            entry.errors.forEach((type, count) -> {
+                long value = count.sum();
+                if (value > 0) {
+                    errors.put(entry.name + " " + type, value);
+                }
+            });
+        }
+        return errors;
+    }
+
+    @Override
+    public String[] getReport() {
+        double seconds = getUptimeSeconds();
+        Map<String, LatencyHistogram.Snapshot> snapshots = snapshots();
+        Map<String, Long> errors = getErrors();
+        long total = 0L;
+        for (LatencyHistogram.Snapshot snapshot : snapshots.values()) {
+            total += snapshot.getCount();
+        }
+        long errorTotal = 0L;
+        for (long count : errors.values()) {
+            errorTotal += count;
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("Stats: %d commands in %.1f s (%.1f ops/s), %d errors",
+                total, seconds, rate(total, seconds), errorTotal));
+        if (total == 0) {
+            return lines.toArray(new String[0]);
+        }
+        lines.add(String.format("  %-18s %9s %10s %9s %9s %9s %9s %10s",
+                "command", "count", "ops/s", "mean us", "p50 us", "p99 us", "p99.9 us", "max us"));
+        snapshots.forEach((name, snapshot) -> {
+            if (snapshot.getCount() > 0) {
+                lines.add(String.format("  %-18s %9d %10.1f %9.1f %9.1f %9.1f %9.1f %10.1f",
+                        name, snapshot.getCount(), rate(snapshot.getCount(), seconds),
+                        snapshot.getMeanNanos() / NANOS_PER_MICRO,
+                        snapshot.getPercentileNanos(50.0) / NANOS_PER_MICRO,
+                        snapshot.getPercentileNanos(99.0) / NANOS_PER_MICRO,
+                        snapshot.getPercentileNanos(99.9) / NANOS_PER_MICRO,
+                        snapshot.getMaxNanos() / NANOS_PER_MICRO));
+            }
+        });
+        if (!errors.isEmpty()) {
+            lines.add("Errors:");
+            errors.forEach((key, count) -> lines.add(String.format("  %-48s %9d", key, count)));
+        }
+        return lines.toArray(new String[0]);
+    }
+
+    private Map<String, LatencyHistogram.Snapshot> snapshots() {
+        Map<String, LatencyHistogram.Snapshot> snapshots = new TreeMap<>();
+        for (Series entry : series.values()) {
+            snapshots.put(entry.name, entry.histogram.snapshot());
+        }
+        return snapshots;
+    }
+
+    private Map<String, Double> latencies(ToDoubleFunction<LatencyHistogram.Snapshot> metric) {
+        Map<String, Double> values = new TreeMap<>();
+        snapshots().forEach((name, snapshot) -> values.put(name, metric.applyAsDouble(snapshot)));
+        return values;
+    }
+
+    private static double rate(long count, double seconds) {
+        return seconds <= 0.0 ? 0.0 : count / seconds;
+    }
+
+    // [Class] Counters for one command name.
+    public static final class Series {
+        private final String name;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final ConcurrentHashMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        private Series(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void record(long nanos) {
+            histogram.record(nanos);
+        }
+
+        // Error: Counted by type (e.g. ResourceNotFoundException), on top of the latency.
+        public void error(RuntimeException e) {
+            errors.computeIfAbsent(e.getClass().getSimpleName(), type -> new LongAdder()).increment();
+        }
+
+        public long getErrorCount() {
+            long total = 0L;
+            for (LongAdder count : errors.values()) {
+                total += count.sum();
+            }
+            return total;
+        }
+
+        private void reset() {
+            histogram.reset();
+            for (LongAdder count : errors.values()) {
+                count.reset();
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package es.upm.etsisi.poo.ui;
+
+import java.util.Map;
+
+// [Interface] JMX view of CommandMetrics (ObjectName es.upm.etsisi.poo:type=CommandMetrics).
+// Maps are keyed by command name ("ticket add"); latencies are in microseconds.
+public interface CommandMetricsMXBean {
+    long getCommandCount();
+
+    long getErrorCount();
+
+    double getUptimeSeconds();
+
+    double getOpsPerSecond();
+
+    Map<String, Long> getCounts();
+
+    Map<String, Double> getOpsPerSecondByCommand();
+
+    Map<String, Double> getMeanMicros();
+
+    Map<String, Double> getP50Micros();
+
+    Map<String, Double> getP99Micros();
+
+    Map<String, Double> getMaxMicros();
+
+    // Keys: "<command> <ExceptionType>", e.g. "ticket add ResourceNotFoundException".
+    Map<String, Long> getErrors();
+
+    // Same table as the 'stats' command.
+    String[] getReport();
+
+    void reset();
+}
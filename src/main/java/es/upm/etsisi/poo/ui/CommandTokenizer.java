@@ -0,0 +1,379 @@
+package es.upm.etsisi.poo.ui;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.time.LocalDate;
+import java.time.DateTimeException;
+import java.time.format.DateTimeFormatter;
+
+import es.upm.etsisi.poo.domain.money.Money;
+
+// [Class] Reusable cursor over one command line.
+// Tokens are kept as offsets into the original line: nothing is copied until a command asks
+// for a String, and numbers, prices and dates are parsed straight from the characters.
+// Rule: Same splitting as the old parseArgs: spaces separate, '"' toggles quoting and is dropped,
+// and tokens made only of quotes are skipped.
+public final class CommandTokenizer {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final int MAX_FAST_DIGITS = 15;      // Cents of 15 digits still fit in a long.
+
+    private String line = "";
+    private int commandStart;
+    private int commandEnd;
+    private int restStart;
+    private int lineEnd;
+
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int[] quotes = new int[16];               // Quote characters inside each token.
+    private int count;
+    private int cursor;
+    private int limit;
+
+    // Logic: Tokenize a new line, reusing the offset arrays.
+    public void reset(String input) {
+        line = input;
+        count = 0;
+        cursor = 0;
+
+        // Trim
+        int pos = 0;
+        int end = input.length();
+        while (pos < end && input.charAt(pos) <= ' ') pos++;
+        while (end > pos && input.charAt(end - 1) <= ' ') end--;
+        lineEnd = end;
+
+        // Command name: up to the first whitespace.
+        commandStart = pos;
+        while (pos < end && !isSpace(input.charAt(pos))) pos++;
+        commandEnd = pos;
+        while (pos < end && isSpace(input.charAt(pos))) pos++;
+        restStart = pos;
+
+        // Arguments
+        boolean inQuotes = false;
+        int start = -1;
+        int quoteCount = 0;
+        boolean hasText = false;
+        for (; pos < end; pos++) {
+            char c = input.charAt(pos);
+            if (c == ' ' && !inQuotes) {
+                if (hasText) {
+                    add(start, pos, quoteCount);
+                }
+                start = -1;
+                quoteCount = 0;
+                hasText = false;
+                continue;
+            }
+            if (start < 0) {
+                start = pos;
+            }
+            if (c == '"') {
+                inQuotes = !inQuotes;
+                quoteCount++;
+            } else {
+                hasText = true;
+            }
+        }
+        if (hasText) {
+            add(start, end, quoteCount);
+        }
+        limit = count;
+    }
+
+    public boolean hasCommand() {
+        return commandEnd > commandStart;
+    }
+
+    // Dispatch: Case-insensitive match against the command name, without copying it.
+    public boolean commandIs(String name) {
+        return commandEnd - commandStart == name.length()
+                && line.regionMatches(true, commandStart, name, 0, name.length());
+    }
+
+    public String command() {
+        return line.substring(commandStart, commandEnd);
+    }
+
+    // Raw text after the command name (used by 'echo').
+    public String rest() {
+        return line.substring(restStart, lineEnd);
+    }
+
+    public boolean hasRest() {
+        return lineEnd > restStart;
+    }
+
+    // Cursor
+    public int remaining() {
+        return limit - cursor;
+    }
+
+    public boolean hasNext() {
+        return cursor < limit;
+    }
+
+    public String next() {
+        String token = get(0);
+        cursor++;
+        return token;
+    }
+
+    public void dropLast() {
+        Objects.checkIndex(0, remaining());
+        limit--;
+    }
+
+    // Access: Index i is relative to the cursor.
+    public String get(int i) {
+        int t = token(i);
+        int start = starts[t];
+        int end = ends[t];
+        if (quotes[t] == 0) {
+            return line.substring(start, end);
+        }
+        if (quotes[t] == 2 && line.charAt(start) == '"' && line.charAt(end - 1) == '"') {
+            return line.substring(start + 1, end - 1);
+        }
+        StringBuilder text = new StringBuilder(end - start);
+        for (int pos = start; pos < end; pos++) {
+            char c = line.charAt(pos);
+            if (c != '"') {
+                text.append(c);
+            }
+        }
+        return text.toString();
+    }
+
+    // Text of token i from character 'from' on (quotes excluded).
+    public String get(int i, int from) {
+        int t = token(i);
+        if (quotes[t] == 0) {
+            return line.substring(starts[t] + from, ends[t]);
+        }
+        return get(i).substring(from);
+    }
+
+    public int length(int i) {
+        int t = token(i);
+        return ends[t] - starts[t] - quotes[t];
+    }
+
+    public char charAt(int i, int index) {
+        int t = token(i);
+        if (quotes[t] == 0 && index >= 0 && index < ends[t] - starts[t]) {
+            return line.charAt(starts[t] + index);
+        }
+        return get(i).charAt(index);
+    }
+
+    public boolean startsWith(int i, String prefix) {
+        int t = token(i);
+        if (quotes[t] == 0) {
+            return ends[t] - starts[t] >= prefix.length()
+                    && line.startsWith(prefix, starts[t]);
+        }
+        return get(i).startsWith(prefix);
+    }
+
+    // Check: Token i equals 'text' (case-sensitive, like the subcommand switches), without copying it.
+    public boolean is(int i, String text) {
+        int t = token(i);
+        if (quotes[t] == 0) {
+            return ends[t] - starts[t] == text.length()
+                    && line.startsWith(text, starts[t]);
+        }
+        return get(i).equals(text);
+    }
+
+    public boolean endsWith(int i, char suffix) {
+        int t = token(i);
+        if (quotes[t] == 0) {
+            return ends[t] > starts[t] && line.charAt(ends[t] - 1) == suffix;
+        }
+        String text = get(i);
+        return !text.isEmpty() && text.charAt(text.length() - 1) == suffix;
+    }
+
+    // Check: Every character of token i, except the last 'trim' ones, is a digit.
+    public boolean isDigits(int i, int trim) {
+        int t = token(i);
+        String source = line;
+        int start = starts[t];
+        int end = ends[t] - trim;
+        if (quotes[t] != 0) {
+            source = get(i);
+            start = 0;
+            end = source.length() - trim;
+        }
+        for (int pos = start; pos < end; pos++) {
+            if (!Character.isDigit(source.charAt(pos))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Typed: Same results and exceptions as Integer.parseInt(get(i)).
+    public int getInt(int i) {
+        long value = parseInt(token(i));
+        if (value == Long.MIN_VALUE) {
+            return Integer.parseInt(get(i));    // Slow path: exact JDK semantics and message.
+        }
+        return (int) value;
+    }
+
+    public boolean isInt(int i) {
+        if (parseInt(token(i)) != Long.MIN_VALUE) {
+            return true;
+        }
+        try {
+            Integer.parseInt(get(i));
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // Typed: Same results and exceptions as Money.parse(get(i)).
+    public Money getMoney(int i) {
+        int t = token(i);
+        if (quotes[t] == 0) {
+            int pos = starts[t];
+            int end = ends[t];
+            boolean negative = pos < end && line.charAt(pos) == '-';
+            if (negative) pos++;
+            long units = 0L;
+            int digits = 0;
+            while (pos < end && isAsciiDigit(line.charAt(pos)) && digits <= MAX_FAST_DIGITS) {
+                units = units * 10 + (line.charAt(pos++) - '0');
+                digits++;
+            }
+            long cents = -1L;
+            if (digits > 0 && digits <= MAX_FAST_DIGITS) {
+                if (pos == end) {
+                    cents = units * 100;
+                } else if (line.charAt(pos) == '.' && pos + 1 < end) {
+                    cents = parseFraction(units, pos + 1, end);
+                }
+            }
+            if (cents >= 0L) {
+                return Money.ofCents(negative ? -cents : cents);
+            }
+        }
+        return Money.parse(get(i));             // Slow path: exponents, '+', overflow, quotes.
+    }
+
+    // Typed: Same results and exceptions as LocalDate.parse(get(i), "yyyy-MM-dd").
+    public LocalDate getDate(int i) {
+        int t = token(i);
+        int start = starts[t];
+        if (quotes[t] == 0 && ends[t] - start == 10
+                && line.charAt(start + 4) == '-' && line.charAt(start + 7) == '-') {
+            int year = digits(start, 4);
+            int month = digits(start + 5, 2);
+            int day = digits(start + 8, 2);
+            if (year > 0 && month >= 0 && day >= 0) {
+                try {
+                    return LocalDate.of(year, month, day);
+                } catch (DateTimeException e) {
+                    // Out of range (e.g. 31 April): the formatter resolves or reports it below.
+                }
+            }
+        }
+        return LocalDate.parse(get(i), DATE_FORMAT);
+    }
+
+    private int token(int i) {
+        return cursor + Objects.checkIndex(i, remaining());
+    }
+
+    private void add(int start, int end, int quoteCount) {
+        if (count == starts.length) {
+            int capacity = count * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            quotes = Arrays.copyOf(quotes, capacity);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        quotes[count] = quoteCount;
+        count++;
+    }
+
+    // Returns Long.MIN_VALUE when the fast path cannot decide (caller falls back to the JDK).
+    private long parseInt(int t) {
+        if (quotes[t] != 0) {
+            return Long.MIN_VALUE;
+        }
+        int pos = starts[t];
+        int end = ends[t];
+        boolean negative = false;
+        if (pos < end && (line.charAt(pos) == '-' || line.charAt(pos) == '+')) {
+            negative = line.charAt(pos) == '-';
+            pos++;
+        }
+        if (pos == end) {
+            return Long.MIN_VALUE;
+        }
+        long value = 0L;
+        for (; pos < end; pos++) {
+            char c = line.charAt(pos);
+            if (!isAsciiDigit(c)) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + (c - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return Long.MIN_VALUE;
+            }
+        }
+        value = negative ? -value : value;
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? Long.MIN_VALUE : value;
+    }
+
+    // Rounds half-up to two decimals, like Money.parse; -1 if the fast path cannot decide.
+    private long parseFraction(long units, int pos, int end) {
+        long fraction = 0L;
+        int scale = 0;
+        boolean roundUp = false;
+        for (; pos < end; pos++) {
+            char c = line.charAt(pos);
+            if (!isAsciiDigit(c)) {
+                return -1L;
+            }
+            if (scale < 2) {
+                fraction = fraction * 10 + (c - '0');
+            } else if (scale == 2) {
+                roundUp = c >= '5';
+            }
+            scale++;
+        }
+        while (scale < 2) {
+            fraction *= 10;
+            scale++;
+        }
+        return units * 100 + fraction + (roundUp ? 1 : 0);
+    }
+
+    private int digits(int start, int length) {
+        int value = 0;
+        for (int pos = start; pos < start + length; pos++) {
+            char c = line.charAt(pos);
+            if (!isAsciiDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    // Same set as the regex \s used by the old split.
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
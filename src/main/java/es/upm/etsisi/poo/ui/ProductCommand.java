@@ -1,46 +1,44 @@
 package es.upm.etsisi.poo.ui;
 
+import java.io.PrintStream;
 import java.util.List;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDateTime;
+import java.time.DateTimeException;
 
 import es.upm.etsisi.poo.domain.product.*;
 import es.upm.etsisi.poo.application.Store;
+import es.upm.etsisi.poo.domain.money.Money;
 import es.upm.etsisi.poo.domain.exceptions.UPMStoreDomainException;
 import es.upm.etsisi.poo.domain.exceptions.InvalidProductDataException;
 
 // [Command] Product CRUD operations.
 class ProductCommand extends AbstractCommand {
+    private static final String LIST_USAGE =
+            "Usage: prod list [--category <category>] [--kind STANDARD|CUSTOMIZABLE|EVENT|SERVICE] [--from <yyyy-MM-dd>] [--to <yyyy-MM-dd>]";
 
-    public ProductCommand(Store store) {
-        super(store);
+    public ProductCommand(Store store, PrintStream out) {
+        super(store, out);
     }
 
     @Override
-    public void execute(String[] args) throws IllegalArgumentException, UPMStoreDomainException {
-        if (args.length == 0) {
+    public void execute(CommandTokenizer args) throws IllegalArgumentException, UPMStoreDomainException {
+        if (!args.hasNext()) {
             throw new IllegalArgumentException("Usage: prod add | addFood | addMeeting | list | update | remove");
         }
-
-        List<String> argList = parseArgs(args[0]);
-        if (argList.isEmpty()) {
-            return;
-        }
-        String command = argList.get(0);
-        argList.remove(0);
+        String command = args.next();
 
         switch (command) {
             case "add" -> {
                 // E3: prod add <expiration: yyyy-MM-dd> <category>
-                if (argList.size() == 2) {
+                if (args.remaining() == 2) {
                     try {
-                        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-                        LocalDate expirationDate = LocalDate.parse(argList.get(0), formatter);
-                        ServiceType serviceType = ServiceType.valueOf(argList.get(1).toUpperCase());
+                        LocalDate expirationDate = args.getDate(0);
+                        ServiceType serviceType = ServiceType.valueOf(args.get(1).toUpperCase());
                         Service service = new Service(expirationDate.atStartOfDay(), serviceType);
                         store.addProduct(service);
-                        System.out.println(service);
-                        System.out.println("prod add: ok");
+                        out.println(service);
+                        out.println("prod add: ok");
                         break;
                     } catch (InvalidProductDataException e) {
                         // Not a service, fall through to standard product creation
@@ -49,23 +47,22 @@ class ProductCommand extends AbstractCommand {
 
                 String id = null;
                 // Check if first arg is an ID (numeric or ends with 'S')
-                if (isId(argList.get(0))) {
-                    id = argList.get(0);
-                    argList.remove(0);
+                if (isId(args)) {
+                    id = args.next();
                 }
 
                 String name;
-                double price;
+                Money price;
                 int maxPers = -1;           // -1 means not customizable
                 ProductCategory category;
 
-                name = argList.get(0);
-                category = ProductCategory.valueOf(argList.get(1).toUpperCase());
-                price = Double.parseDouble(argList.get(2));
+                name = args.get(0);
+                category = ProductCategory.valueOf(args.get(1).toUpperCase());
+                price = args.getMoney(2);
                 
                 // E2: Check for optional customizable parameter
-                if (argList.size() > 3) {
-                    maxPers = Integer.parseInt(argList.get(3));
+                if (args.remaining() > 3) {
+                    maxPers = args.getInt(3);
                 }
 
                 Product prod;
@@ -84,28 +81,25 @@ class ProductCommand extends AbstractCommand {
                 }
 
                 store.addProduct(prod);
-                System.out.println(prod);
-                System.out.println("prod add: ok");
+                out.println(prod);
+                out.println("prod add: ok");
             }
             case "addFood", "addMeeting" -> {
                 String eventId = null;
-                if (isId(argList.get(0))) {
-                    eventId = argList.get(0);
-                    argList.remove(0);
+                if (isId(args)) {
+                    eventId = args.next();
                 }
 
                 int maxPeople;
                 String eventName;
-                double eventPrice;
+                Money eventPrice;
                 LocalDate expirationDate;
 
                 // Rule: Date format yyyy-MM-dd (E2)
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-                eventName = argList.get(0);
-                eventPrice = Double.parseDouble(argList.get(1));
-                expirationDate = LocalDate.parse(argList.get(2), formatter);
-                maxPeople = Integer.parseInt(argList.get(3));
+                eventName = args.get(0);
+                eventPrice = args.getMoney(1);
+                expirationDate = args.getDate(2);
+                maxPeople = args.getInt(3);
 
                 EventType eventType = command.equals("addFood") ? EventType.FOOD : EventType.MEETING;
                 
@@ -119,54 +113,95 @@ class ProductCommand extends AbstractCommand {
                 eventProduct.validate();
                 
                 store.addProduct(eventProduct);
-                System.out.println(eventProduct);
-                System.out.println("prod " + command + ": ok");
+                out.println(eventProduct);
+                out.println("prod " + command + ": ok");
             }
             case "list" -> {
-                List<Product> productList = store.getProducts();
-                System.out.println("Catalog:");
+                List<Product> productList = args.hasNext() ? findProducts(args) : store.getProducts();
+                out.println("Catalog:");
                 for (Product p : productList) {
-                    System.out.println("  " + p);
+                    out.println("  " + p);
                 }
-                System.out.println("prod list: ok");
+                out.println("prod list: ok");
             }
             case "update" -> {
-                if (argList.size() >= 3) {
-                    String productId = argList.get(0);
-                    String field = argList.get(1);
-                    String updateValue = argList.get(2);
+                if (args.remaining() >= 3) {
+                    String productId = args.get(0);
+                    String field = args.get(1);
+                    String updateValue = args.get(2);
                     store.updateProduct(productId, field, updateValue);
-                    System.out.println(store.getCatalog().getProduct(productId));
-                    System.out.println("prod update: ok");
+                    out.println(store.getCatalog().getProduct(productId));
+                    out.println("prod update: ok");
                 }
             }
             case "remove" -> {
-                if (!argList.isEmpty()) {
-                    String removeId = argList.get(0);
+                if (args.hasNext()) {
+                    String removeId = args.get(0);
                     Product removedProduct = store.removeProduct(removeId);
-                    System.out.println(removedProduct);
-                    System.out.println("prod remove: ok");
+                    out.println(removedProduct);
+                    out.println("prod remove: ok");
                 }
             }
-            default -> System.out.println("Usage: prod add | addFood | addMeeting | list | update | remove");
+            default -> out.println("Usage: prod add | addFood | addMeeting | list | update | remove");
+        }
+    }
+
+    // Filters: prod list [--category <c>] [--kind <k>] [--from <yyyy-MM-dd>] [--to <yyyy-MM-dd>]
+    // Dates are whole days, both inclusive; only events and services have one.
+    private List<Product> findProducts(CommandTokenizer args) {
+        ProductCategory category = null;
+        ProductKind kind = null;
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        while (args.hasNext()) {
+            String option = args.next();
+            if (!args.hasNext()) {
+                throw new IllegalArgumentException(LIST_USAGE);
+            }
+            switch (option) {
+                case "--category" -> category = nextCategory(args);
+                case "--kind" -> kind = nextKind(args);
+                case "--from" -> from = nextDate(args).atStartOfDay();
+                case "--to" -> to = nextDate(args).plusDays(1).atStartOfDay();
+                default -> throw new IllegalArgumentException(LIST_USAGE);
+            }
+        }
+        return store.findProducts(category, kind, from, to);
+    }
+
+    private ProductCategory nextCategory(CommandTokenizer args) {
+        String value = args.next();
+        try {
+            return ProductCategory.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Error: Invalid category " + value);
+        }
+    }
+
+    private ProductKind nextKind(CommandTokenizer args) {
+        String value = args.next();
+        try {
+            return ProductKind.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Error: Invalid kind " + value);
         }
     }
 
-    private boolean isId(String s) {
+    private LocalDate nextDate(CommandTokenizer args) {
         try {
-            Integer.valueOf(s);
+            LocalDate date = args.getDate(0);
+            args.next();
+            return date;
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Error: Invalid date " + args.get(0));
+        }
+    }
+
+    // Check: Next token is an ID (an int, or digits ending with 'S').
+    private boolean isId(CommandTokenizer args) {
+        if (args.isInt(0)) {
             return true;
-        } catch (NumberFormatException e) {
-            if (s.endsWith("S") && s.length() > 1) {
-                String prefix = s.substring(0, s.length() - 1);
-                for (int i = 0; i < prefix.length(); i++) {
-                    if (!Character.isDigit(prefix.charAt(i))) {
-                        return false;
-                    }
-                }
-                return true;
-            }
         }
-        return false;
+        return args.endsWith(0, 'S') && args.length(0) > 1 && args.isDigits(0, 1);
     }
 }
\ No newline at end of file
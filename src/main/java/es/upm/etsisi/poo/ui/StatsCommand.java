@@ -0,0 +1,36 @@
+package es.upm.etsisi.poo.ui;
+
+import java.io.PrintStream;
+
+import es.upm.etsisi.poo.application.Store;
+import es.upm.etsisi.poo.domain.exceptions.UPMStoreDomainException;
+
+// [Command] Latency, throughput and error counters per command.
+class StatsCommand extends AbstractCommand {
+    private final CommandMetrics metrics;
+
+    public StatsCommand(Store store, PrintStream out, CommandMetrics metrics) {
+        super(store, out);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void execute(CommandTokenizer args) throws IllegalArgumentException, UPMStoreDomainException {
+        if (!args.hasNext()) {
+            for (String line : metrics.getReport()) {
+                out.println(line);
+            }
+            out.println("stats: ok");
+            return;
+        }
+        String command = args.next();
+
+        switch (command) {
+            case "reset" -> {
+                metrics.reset();
+                out.println("stats reset: ok");
+            }
+            default -> throw new IllegalArgumentException("Usage: stats [reset]");
+        }
+    }
+}
@@ -1,31 +1,28 @@
 package es.upm.etsisi.poo.ui;
 
 import java.util.List;
+import java.io.IOException;
+import java.io.PrintStream;
 import java.util.ArrayList;
 
 import es.upm.etsisi.poo.application.Store;
-import es.upm.etsisi.poo.domain.ticket.Ticket;
+import es.upm.etsisi.poo.domain.ticket.TicketSummary;
 import es.upm.etsisi.poo.domain.ticket.TicketPrintType;
 import es.upm.etsisi.poo.domain.exceptions.UPMStoreDomainException;
 
 class TicketCommand extends AbstractCommand {
 
-    public TicketCommand(Store store) {
-        super(store);
+    public TicketCommand(Store store, PrintStream out) {
+        super(store, out);
     }
 
     @Override
     @SuppressWarnings("Convert2Lambda")
-    public void execute(String[] args) throws IllegalArgumentException, UPMStoreDomainException {
-        if (args.length == 0) {
+    public void execute(CommandTokenizer args) throws IllegalArgumentException, UPMStoreDomainException {
+        if (!args.hasNext()) {
             throw new IllegalArgumentException("Usage: ticket new | add | remove | print | list");
         }
-        List<String> argList = parseArgs(args[0]);
-        if (argList.isEmpty()) {
-            return;
-        }
-        String command = argList.get(0);
-        argList.remove(0);
+        String command = args.next();
 
         switch (command) {
             case "new" -> {
@@ -35,92 +32,87 @@ class TicketCommand extends AbstractCommand {
                 char flag = 'p'; // Default flag
 
                 // Logic: Check flags (-c, -s).
-                if (argList.size() > 2 && argList.get(argList.size() - 1).startsWith("-")) {
-                    flag = argList.get(argList.size() - 1).charAt(1);
-                    argList.remove(argList.size() - 1);
+                int last = args.remaining() - 1;
+                if (args.remaining() > 2 && args.startsWith(last, "-")) {
+                    flag = args.charAt(last, 1);
+                    args.dropLast();
                 }
 
                 // Logic: Optional Ticket ID.
-                if (argList.size() > 2) {
-                    ticketId = argList.get(0);
-                    argList.remove(0);
+                if (args.remaining() > 2) {
+                    ticketId = args.next();
                 }
-                cashierId = argList.get(0);
-                clientId = argList.get(1);
+                cashierId = args.get(0);
+                clientId = args.get(1);
 
                 TicketPrintType printType = TicketPrintType.fromFlag(flag);
 
                 store.createTicket(ticketId, cashierId, clientId, printType);
-                System.out.println("ticket new: ok");
+                out.println("ticket new: ok");
             }
             case "add" -> {
-                String addTicketId = argList.get(0);
-                String addCashierId = argList.get(1);
-                String prodId = argList.get(2);
+                String addTicketId = args.get(0);
+                String addCashierId = args.get(1);
+                String prodId = args.get(2);
                 int amount = 1; // Default to 1 if not specified
 
-                if (argList.size() > 3) {
-                    try {
-                        amount = Integer.parseInt(argList.get(3));
-                    } catch (NumberFormatException e) {
-                        // If the 4th argument isn't a number (e.g., it's a customization flag), keep default 1
-                    }
+                // If the 4th argument isn't a number (e.g., it's a customization flag), keep default 1
+                if (args.remaining() > 3 && args.isInt(3)) {
+                    amount = args.getInt(3);
                 }
 
                 // Logic: Parse custom text (--p).
                 @SuppressWarnings("Convert2Diamond")
                         List<String> customTexts = new ArrayList<String>();
-                for (int i = 4; i < argList.size(); i++) {
-                    if (argList.get(i).startsWith("--p")) {
-                        String text = argList.get(i).substring(3);
-                        if (!text.isEmpty()) {
-                            customTexts.add(text);
-                        }
+                for (int i = 4; i < args.remaining(); i++) {
+                    if (args.startsWith(i, "--p") && args.length(i) > 3) {
+                        customTexts.add(args.get(i, 3));
                     }
                 }
 
                 store.addProductToTicket(addTicketId, addCashierId, prodId, amount, customTexts);
-                System.out.println("ticket add: ok");
+                out.println("ticket add: ok");
             }
             case "remove" -> {
-                if (argList.size() != 3) {
+                if (args.remaining() != 3) {
                     throw new IllegalArgumentException("Usage: ticket remove <ticketId> <cashId> <prodId>");
                 }
-                String removeTicketId = argList.get(0);
-                String removeCashierId = argList.get(1);
-                String removeProdId = argList.get(2);
+                String removeTicketId = args.get(0);
+                String removeCashierId = args.get(1);
+                String removeProdId = args.get(2);
 
                 store.removeProductFromTicket(removeTicketId, removeCashierId, removeProdId);
-                System.out.println("ticket remove: ok");
+                out.println("ticket remove: ok");
             }
             case "print" -> {
-                if (argList.size() != 2) {
+                if (args.remaining() != 2) {
                     throw new IllegalArgumentException("Usage: ticket print <ticketId> <cashId>");
                 }
-                String printTicketId = argList.get(0);
-                String printCashierId = argList.get(1);
-
-                String receipt = store.printTicket(printTicketId, printCashierId);
-                System.out.print(receipt);
+                String printTicketId = args.get(0);
+                String printCashierId = args.get(1);
+
+                // Streaming: Receipt goes straight into the output (never held as a String), so in
+                // batch mode it lands in the same large buffer as every other line.
+                try {
+                    store.printTicket(printTicketId, printCashierId, out);
+                } catch (IOException e) {
+                    throw new UPMStoreDomainException("Failed to write receipt: " + e.getMessage(), e);
+                }
             }
 
             case "list" -> {
-                List<Ticket<?>> allTickets = store.getTickets();
-                // Sort: Cashier name, then ID.
-                allTickets.sort(new TicketCashierComparator(store));
-
-                System.out.println("Tickets:");
-                for (Ticket<?> ticket : allTickets) {
-                    // Display: Resolve IDs to names.
-                    String cId = store.findCashierIdByTicket(ticket);
-                    String uId = store.findClientIdByTicket(ticket);
-                    
-                    System.out.println("  ID: " + ticket.getId() + ", Cashier: " + cId + ", Client: "
-                            + uId + ", State: " + ticket.getState());
+                List<TicketSummary> allTickets = store.listTickets();
+                // Sort: Cashier, then ID.
+                allTickets.sort(new TicketCashierComparator());
+
+                out.println("Tickets:");
+                for (TicketSummary ticket : allTickets) {
+                    out.println("  ID: " + ticket.getId() + ", Cashier: " + ticket.getCashierId() + ", Client: "
+                            + ticket.getClientId() + ", State: " + ticket.getState());
                 }
-                System.out.println("ticket list: ok");
+                out.println("ticket list: ok");
             }
-            default -> System.out.println("Unknown ticket command.");
+            default -> out.println("Unknown ticket command.");
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,214 @@
+package es.upm.etsisi.poo.application;
+
+import java.net.Socket;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ConnectException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.io.TempDir;
+
+import es.upm.etsisi.poo.infrastructure.persistence.FilePersistenceHandler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// [Test] Tills over real localhost sockets: the server listens on a free port (0) and every test
+// talks to it with the console protocol, reading up to each prompt.
+@Timeout(60)
+class TillServerTest {
+    private static final String PROMPT = "tUPM> ";
+    private static final String GREETING = "Welcome to the ticket module App.\nTicket module. Type 'help' to see commands.\n";
+    private static final int SOCKET_TIMEOUT_MILLIS = 10_000;
+
+    @TempDir
+    Path directory;
+
+    private TillServer server;
+
+    @AfterEach
+    void stopServer() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    void tillsShareTheStoreButNotTheirOutput() throws IOException {
+        Store store = new Store();
+        server = start(store, 4);
+
+        try (Till first = connect(); Till second = connect()) {
+            assertEquals(GREETING, first.response());
+            assertEquals(GREETING, second.response());
+
+            assertTrue(first.send("prod add 1 \"Libro POO\" BOOK 25").endsWith("prod add: ok\n"));
+            // Check: The other till sees the product, and only its own responses.
+            assertEquals("\"only mine\"\n", second.send("echo \"only mine\""));
+            assertTrue(second.send("prod list").contains("Libro POO"));
+            assertNotNull(store.getProduct("1"));
+
+            // Check: 'exit' closes one till; the other keeps working.
+            assertEquals("Till #1 closed.\n", first.sendLast("exit"));
+            assertEquals("\"still open\"\n", second.send("echo \"still open\""));
+            assertEquals(1, server.getActiveSessions());
+        }
+    }
+
+    @Test
+    void rejectsConnectionsBeyondMaxSessions() throws IOException, InterruptedException {
+        server = start(new Store(), 1);
+
+        try (Till first = connect()) {
+            assertEquals(GREETING, first.response());
+            try (Till second = connect()) {
+                assertEquals("Error: Till server is full (1 sessions). Try again later.\n", second.remaining());
+            }
+            assertEquals("served\n", first.send("echo served"));
+            first.sendLast("exit");
+        }
+        // Check: The freed permit lets the next till in.
+        awaitSessions(0);
+        try (Till third = connect()) {
+            assertEquals(GREETING, third.response());
+            assertEquals("\"served again\"\n", third.send("echo \"served again\""));
+        }
+    }
+
+    @Test
+    void stopDrainsReceivedCommandsBeforeSaving() throws IOException {
+        Store store = new Store();
+        FilePersistenceHandler persistence = persistence();
+        server = new TillServer(store, persistence, 0, 4, 0, 30);
+        server.start();
+
+        int count = 20;
+        StringBuilder batch = new StringBuilder();
+        for (int i = 1; i <= count; i++) {
+            batch.append("prod add ").append(i).append(" \"Item ").append(i).append("\" MERCH ").append(i).append('\n');
+        }
+        try (Till till = connect()) {
+            assertEquals(GREETING, till.response());
+            till.write(batch.toString());
+            assertTrue(till.response().endsWith("prod add: ok\n"));
+
+            // Logic: The rest of the batch is already in the till's buffer; stop() must let it finish.
+            assertTrue(server.stop());
+            assertFalse(server.stop());
+            String rest = till.remaining();
+            assertEquals(count - 1, occurrences(rest, "prod add: ok\n"), rest);
+        }
+        assertEquals(0, server.getActiveSessions());
+        assertThrows(ConnectException.class, () -> new Socket(InetAddress.getLoopbackAddress(), server.getPort()).close());
+
+        persistence.save(store);
+        Store reloaded = persistence().load();
+        assertEquals(count, reloaded.getProducts().size());
+        assertEquals("Item " + count, reloaded.getProduct(String.valueOf(count)).getName());
+    }
+
+    private TillServer start(Store store, int maxSessions) throws IOException {
+        TillServer started = new TillServer(store, persistence(), 0, maxSessions, 0, 30);
+        started.start();
+        return started;
+    }
+
+    private FilePersistenceHandler persistence() {
+        return new FilePersistenceHandler(directory, FilePersistenceHandler.DEFAULT_CHECKPOINT_INTERVAL,
+                FilePersistenceHandler.DEFAULT_CHECKPOINT_SECONDS);
+    }
+
+    private Till connect() throws IOException {
+        return new Till(new Socket(InetAddress.getLoopbackAddress(), server.getPort()));
+    }
+
+    private void awaitSessions(int sessions) throws InterruptedException {
+        long deadline = System.nanoTime() + SOCKET_TIMEOUT_MILLIS * 1_000_000L;
+        while (server.getActiveSessions() != sessions && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(sessions, server.getActiveSessions());
+    }
+
+    private static int occurrences(String text, String part) {
+        int found = 0;
+        for (int at = text.indexOf(part); at >= 0; at = text.indexOf(part, at + part.length())) {
+            found++;
+        }
+        return found;
+    }
+
+    // [Class] Client end of one till; reads stop at the prompt, which is not followed by a newline.
+    private static final class Till implements AutoCloseable {
+        private final Socket socket;
+        private final Reader input;
+        private final Writer output;
+
+        private Till(Socket socket) throws IOException {
+            this.socket = socket;
+            socket.setSoTimeout(SOCKET_TIMEOUT_MILLIS);
+            this.input = new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8);
+            this.output = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+        }
+
+        // Response to one command, up to the next prompt.
+        private String send(String command) throws IOException {
+            write(command + "\n");
+            return response();
+        }
+
+        // Response to a command that ends the till, up to the end of the stream.
+        private String sendLast(String command) throws IOException {
+            write(command + "\n");
+            return remaining();
+        }
+
+        private void write(String text) throws IOException {
+            output.write(text);
+            output.flush();
+        }
+
+        private String response() throws IOException {
+            StringBuilder text = new StringBuilder();
+            int c;
+            while ((c = input.read()) >= 0) {
+                text.append((char) c);
+                if (endsWithPrompt(text)) {
+                    return lines(text.substring(0, text.length() - PROMPT.length()));
+                }
+            }
+            throw new IOException("Till closed before the prompt; got: " + text);
+        }
+
+        private String remaining() throws IOException {
+            StringBuilder text = new StringBuilder();
+            int c;
+            while ((c = input.read()) >= 0) {
+                text.append((char) c);
+            }
+            return lines(text.toString());
+        }
+
+        // The server ends lines with the platform separator.
+        private static String lines(String text) {
+            return text.replace(System.lineSeparator(), "\n");
+        }
+
+        private static boolean endsWithPrompt(StringBuilder text) {
+            int start = text.length() - PROMPT.length();
+            return start >= 0 && text.indexOf(PROMPT, start) == start;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
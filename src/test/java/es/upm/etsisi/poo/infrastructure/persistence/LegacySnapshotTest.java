@@ -0,0 +1,165 @@
+package es.upm.etsisi.poo.infrastructure.persistence;
+
+import java.util.Set;
+import java.util.List;
+import java.util.HashSet;
+import java.util.ArrayList;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import es.upm.etsisi.poo.application.Store;
+import es.upm.etsisi.poo.domain.user.Client;
+import es.upm.etsisi.poo.domain.user.Cashier;
+import es.upm.etsisi.poo.domain.ticket.Ticket;
+import es.upm.etsisi.poo.domain.ticket.TicketState;
+import es.upm.etsisi.poo.domain.product.Catalog;
+import es.upm.etsisi.poo.domain.product.Product;
+import es.upm.etsisi.poo.domain.exceptions.PersistenceException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// [Test] Loads the store_data.dat written by the first, Java-serialized release (resources/baseline).
+class LegacySnapshotTest {
+    private static final String SNAPSHOT = "store_data.dat";
+    private static final String CASHIER = "UW1234567";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void loadsBaselineSnapshot() throws IOException {
+        Store store = handler(copyBaseline()).load();
+
+        assertEquals(List.of("1", "2", "3", "23456", "23457", "23458", "23459", "5", "6", "1S", "2S"), ids(store.getProducts()));
+        assertEquals(3000L, store.getProduct("1").getPrice().getCents());
+        assertEquals("Libro POO V2", store.getProduct("1").getName());
+        assertEquals(Set.of("UW0513613", CASHIER), cashierIds(store.getCashiers()));
+        assertEquals(Set.of("98948334B", "B12345674", "55630667S"), clientIds(store.getClients()));
+
+        assertEquals(7, store.getTickets().size());
+        Ticket<?> company = store.getTicket("26-01-02-23:34-21589");
+        assertEquals(CASHIER, company.getCashierId());
+        assertEquals("B12345674", company.getClientId());
+        assertEquals(CASHIER, store.findCashierIdByTicket(company));
+        assertEquals(7, store.getTicketsByCashierId(CASHIER).size());
+        assertTrue(store.getTicketsByCashierId("UW0513613").isEmpty());
+    }
+
+    @Test
+    void reprintsBaselineTicketsUnchanged() throws IOException {
+        Store store = handler(copyBaseline()).load();
+
+        String common = store.printTicket("26-01-02-23:34-04082", CASHIER);
+        assertTrue(common.startsWith("Ticket ID: 26-01-02-23:34-04082"), common);
+        assertTrue(common.contains("Total price: 540.00"), common);
+        String company = store.printTicket("26-01-02-23:34-21589", CASHIER);
+        assertTrue(company.contains("Final Price: 168.00"), company);
+        String mixed = store.printTicket("26-01-02-23:34-43662", CASHIER);
+        assertTrue(mixed.contains("Total price: 135.32"), mixed);
+    }
+
+    @Test
+    void resavesBaselineSnapshotInCurrentFormat() throws IOException {
+        Path snapshot = copyBaseline();
+        FilePersistenceHandler first = handler(snapshot);
+        Store store = first.load();
+        first.openArchive(store);
+        List<String> receipts = receipts(store);
+        first.save(store);
+        assertEquals(SnapshotCodec.MAGIC, readInt(snapshot));
+
+        FilePersistenceHandler second = handler(snapshot);
+        Store reloaded = second.load();
+        second.openArchive(reloaded);
+        assertEquals(ids(store.getProducts()), ids(reloaded.getProducts()));
+        assertEquals(receipts, receipts(reloaded));
+    }
+
+    @Test
+    void appliesConfiguredCatalogCapacity() throws IOException {
+        Path snapshot = copyBaseline();
+        FilePersistenceHandler legacy = handler(snapshot);
+        Store store = legacy.load(500);
+        assertEquals(500, store.getCatalog().getMaxProducts());
+        legacy.save(store);
+
+        // Check: Raising the limit after the first save still takes effect; lowering it keeps what was saved.
+        assertEquals(1000, handler(snapshot).load(1000).getCatalog().getMaxProducts());
+        assertEquals(500, handler(snapshot).load(Catalog.DEFAULT_MAX_PRODUCTS).getCatalog().getMaxProducts());
+    }
+
+    @Test
+    void refusesToOverwriteUnreadableSnapshot() throws IOException {
+        Path snapshot = directory.resolve(SNAPSHOT);
+        byte[] unreadable = "not a store snapshot".getBytes(StandardCharsets.UTF_8);
+        Files.write(snapshot, unreadable);
+        FilePersistenceHandler handler = handler(snapshot);
+
+        assertThrows(PersistenceException.class, handler::load);
+        Store empty = new Store();
+        assertThrows(PersistenceException.class, () -> handler.openJournal(empty));
+        assertThrows(PersistenceException.class, () -> handler.save(empty));
+        assertArrayEquals(unreadable, Files.readAllBytes(snapshot));
+    }
+
+    private Path copyBaseline() throws IOException {
+        Path snapshot = directory.resolve(SNAPSHOT);
+        try (InputStream in = LegacySnapshotTest.class.getResourceAsStream("/baseline/" + SNAPSHOT)) {
+            assertNotNull(in, "Missing test resource baseline/" + SNAPSHOT);
+            Files.copy(in, snapshot);
+        }
+        return snapshot;
+    }
+
+    private FilePersistenceHandler handler(Path snapshot) {
+        return new FilePersistenceHandler(snapshot.getParent(), FilePersistenceHandler.DEFAULT_CHECKPOINT_INTERVAL,
+                FilePersistenceHandler.DEFAULT_CHECKPOINT_SECONDS);
+    }
+
+    // Receipts of every ticket, live or archived, sorted by ticket ID.
+    private static List<String> receipts(Store store) {
+        List<String> receipts = new ArrayList<>();
+        for (Ticket<?> ticket : store.getAllTickets()) {
+            if (ticket.getState() == TicketState.CLOSED) {
+                receipts.add(store.printTicket(ticket.getId(), ticket.getCashierId()));
+            }
+        }
+        receipts.sort(null);
+        return receipts;
+    }
+
+    private static int readInt(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        return ((bytes[0] & 0xFF) << 24) | ((bytes[1] & 0xFF) << 16) | ((bytes[2] & 0xFF) << 8) | (bytes[3] & 0xFF);
+    }
+
+    private static List<String> ids(List<Product> products) {
+        List<String> ids = new ArrayList<>();
+        for (Product product : products) {
+            ids.add(product.getId());
+        }
+        return ids;
+    }
+
+    private static Set<String> cashierIds(List<Cashier> cashiers) {
+        Set<String> ids = new HashSet<>();
+        for (Cashier cashier : cashiers) {
+            ids.add(cashier.getId());
+        }
+        return ids;
+    }
+
+    private static Set<String> clientIds(List<Client> clients) {
+        Set<String> ids = new HashSet<>();
+        for (Client client : clients) {
+            ids.add(client.getId());
+        }
+        return ids;
+    }
+}